@@ -2,50 +2,110 @@ import java.util.*;
 
 public class AGScheduler {
 
-    List<String> execution_Order = new ArrayList<>();
+    private Timeline timeline = new Timeline(i -> "P" + (i + 1));
     List<Process> finished_Processes = new ArrayList<>();
+    private SchedulerMetrics metrics;
+    private final RunStats stats = new RunStats();
 
-    // Sort by arrival time
+    void setMetrics(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Sort by arrival time, in place; equal arrivals keep their order
     private Process[] sortTHEArrivalTime(Process[] processes) {
 
-        Arrays.sort(processes, Comparator.comparingInt(Process::getArrivalTime));
+        int[] arrivals = new int[processes.length];
+        for (int k = 0; k < processes.length; k++) arrivals[k] = processes[k].getArrivalTime();
+        Process[] original = processes.clone();
+        int[] order = TimingWheel.sortedIndices(arrivals, arrivals.length);
+        for (int k = 0; k < order.length; k++) processes[k] = original[order[k]];
         return processes;
 
     }
 
-    //  Phase 2
-    private Process get_Best_Priority(List<Process> waitingQueue) {
-
-        if (waitingQueue.isEmpty()) return null;
-
-        Process best_Process = waitingQueue.get(0);
-
-        for (Process process : waitingQueue) {
-            if (process.getPriority() < best_Process.getPriority()) {
-                best_Process = process;
-            }
+    // A process waiting in the ready queue; seq is its position in queue order.
+    // The heap keys are copied in, since a waiting process's priority and remaining time do not change
+    // but a dispatched process's remaining time does while its removed entry is still in the heaps.
+    private static class ReadyEntry {
+        final Process process;
+        final long seq;
+        final int priority;
+        final int remainingTime;
+        boolean removed;
+
+        ReadyEntry(Process process, long seq) {
+            this.process = process;
+            this.seq = seq;
+            this.priority = process.getPriority();
+            this.remainingTime = process.getRemainingTime();
         }
+    }
 
-        return best_Process;
+    // The ready queue is kept in FIFO order, with two heaps over the same entries for phases 2 and 3.
+    // Removed entries are skipped lazily when they reach the front of each structure, and a structure
+    // is rebuilt without them once they outnumber the live ones, so each stays O(ready processes)
+    // however many dispatches the run makes.
+    private final ArrayDeque<ReadyEntry> readyQueue = new ArrayDeque<>();
+    private final PriorityQueue<ReadyEntry> priorityHeap = new PriorityQueue<>(
+            Comparator.comparingInt((ReadyEntry e) -> e.priority).thenComparingLong(e -> e.seq));
+    private final PriorityQueue<ReadyEntry> shortestHeap = new PriorityQueue<>(
+            Comparator.comparingInt((ReadyEntry e) -> e.remainingTime).thenComparingLong(e -> e.seq));
+    private final Map<Process, ReadyEntry> readyEntries = new IdentityHashMap<>();
+    private long nextSeq = 0;
+    // stale entries tolerated beyond the live count, so small queues are not rebuilt on every removal
+    private static final int STALE_SLACK = 16;
+
+    void addToReadyQueue(Process p) {
+        ReadyEntry entry = new ReadyEntry(p, nextSeq++);
+        readyEntries.put(p, entry);
+        readyQueue.add(entry);
+        priorityHeap.add(entry);
+        shortestHeap.add(entry);
     }
 
-    // Phase 3
-    private Process getShortestJob(List<Process> waitingQueue) {
+    void removeFromReadyQueue(Process p) {
+        readyEntries.remove(p).removed = true;
+        // each live entry is in every structure once, so the rest of a structure is stale
+        int limit = 2 * readyEntries.size() + STALE_SLACK;
+        if (readyQueue.size() > limit) readyQueue.removeIf(e -> e.removed);
+        if (priorityHeap.size() > limit) priorityHeap.removeIf(e -> e.removed);
+        if (shortestHeap.size() > limit) shortestHeap.removeIf(e -> e.removed);
+    }
 
-        if (waitingQueue.isEmpty()) return null;
+    boolean hasReadyProcesses() {
+        return !readyEntries.isEmpty();
+    }
 
-        Process shortestJob = waitingQueue.get(0);
+    int readyCount() {
+        return readyEntries.size();
+    }
 
-        for (Process process : waitingQueue) {
+    private static ReadyEntry firstLive(Queue<ReadyEntry> queue) {
+        while (!queue.isEmpty() && queue.peek().removed) {
+            queue.poll();
+        }
+        return queue.peek();
+    }
 
-            if (process.getRemainingTime() < shortestJob.getRemainingTime()) {
+    // Phase 1
+    Process pollReadyQueue() {
+        Process p = firstLive(readyQueue).process;
+        removeFromReadyQueue(p);
+        return p;
+    }
 
-                shortestJob = process;
+    //  Phase 2, earliest queued among the lowest priority values
+    Process get_Best_Priority() {
 
-            }
-        }
+        ReadyEntry best = firstLive(priorityHeap);
+        return best == null ? null : best.process;
+    }
+
+    // Phase 3, earliest queued among the shortest remaining times
+    Process getShortestJob() {
 
-        return shortestJob;
+        ReadyEntry shortest = firstLive(shortestHeap);
+        return shortest == null ? null : shortest.process;
     }
 
     private void printINFO(List<Process> finishedProcesses, List<String> executionOrder) {
@@ -90,10 +150,16 @@ public class AGScheduler {
     public void StartSimulation(Process[] processes) {
 
         int currentTIME = 0;
-        List<Process> readyQueue = new ArrayList<>();
         sortTHEArrivalTime(processes);
         int i = 0;
 
+        // timeline ids are positions in the sorted array
+        Map<Process, Integer> ids = new IdentityHashMap<>();
+        for (int k = 0; k < processes.length; k++) {
+            ids.put(processes[k], k);
+        }
+        timeline = new Timeline(k -> processes[k].getName());
+
         Process nextProcess = null;
         for(Process p : processes ){
             p.addQuantumToHistory(p.getQuantumTime());
@@ -102,15 +168,16 @@ public class AGScheduler {
         while (finished_Processes.size() < processes.length) {
             while (i < processes.length && processes[i].getArrivalTime() <= currentTIME) {
 
-                readyQueue.add(processes[i]);
+                addToReadyQueue(processes[i]);
                 i++;
 
             }
 
-            if (readyQueue.isEmpty()) { // to check if the first arrival time not = 0 so we will start from it
+            if (!hasReadyProcesses()) { // to check if the first arrival time not = 0 so we will start from it
 
                 if (i < processes.length) {
 
+                    timeline.idle(currentTIME, processes[i].getArrivalTime());
                     currentTIME = processes[i].getArrivalTime();
                 }
 
@@ -128,31 +195,29 @@ public class AGScheduler {
 
             else{
 
-                p = readyQueue.remove(0);
+                p = pollReadyQueue();
             }
 
-            execution_Order.add(p.getName());
+            int id = ids.get(p);
+            if (metrics != null) metrics.decision(readyCount() + 1);
 
             int q = p.getQuantumTime();
             int q1 = (int) Math.ceil(0.25 * q); //calc the phase 1 n 2 times for the curr process
             int q2 = (int) Math.ceil(0.25 * q);
 
-            Boolean is_preempted = false;
-
-            int runtime = 0;                   // track the run time for each phase
-
-            while (runtime < q1 && p.getRemainingTime() > 0) {
-
-                p.adjustRemainingTime(); // decrement the p's remaining time by 1 _> p--
-                currentTIME++;
-                runtime++;
-
-                while (i < processes.length && processes[i].getArrivalTime() <= currentTIME) { // to check if another process comes when the first process being excuted
+            // nothing can preempt phase 1, so it runs as a single chunk
+            int runtime = Math.min(q1, p.getRemainingTime());   // track the run time for each phase
+            if (p.getRemainingTime() == p.getBurstTime()) {
+                stats.firstDispatch(p.getArrivalTime(), currentTIME);
+            }
+            p.adjustBurstTime(runtime);
+            timeline.dispatch(id, currentTIME, currentTIME + runtime);
+            currentTIME += runtime;
 
-                    readyQueue.add(processes[i]);
-                    i++;
+            while (i < processes.length && processes[i].getArrivalTime() <= currentTIME) { // to check if another process comes when the first process being excuted
 
-                }
+                addToReadyQueue(processes[i]);
+                i++;
 
             }
 
@@ -162,6 +227,7 @@ public class AGScheduler {
                 finished_Processes.add(p);
                 p.turnaroundTime = currentTIME - p.getArrivalTime();
                 p.waitingTime = p.turnaroundTime - p.burstTime;
+                stats.completed(p.arrivalTime, p.burstTime, currentTIME);
                 continue;
 
             }
@@ -169,65 +235,60 @@ public class AGScheduler {
 
 
 
-            Process higherpriority = get_Best_Priority(readyQueue); // get the p's less priority value and it return null if the RQ was empty
-            while (runtime < q1 + q2 && p.remainingTime > 0) {
+            // phase 2 is checked once on entry: either a better priority preempts now, or the phase runs to its end
+            Process higherpriority = get_Best_Priority(); // get the p's less priority value and it return null if the RQ was empty
+            if (runtime < q1 + q2) {
 
                 if (higherpriority != null && higherpriority.priority < p.priority) { // if there is a process has priority value less than the excuted then adjust its quantum time and add it to RQ
 
                     updateQuantum(p, runtime, 2);
-                    readyQueue.add(p);
-
-                    if(readyQueue.get(0) != higherpriority) {
+                    addToReadyQueue(p);
+                    if (metrics != null) metrics.preempt(SchedulerMetrics.Preemption.HIGHER_PRIORITY, timeline, id, currentTIME);
 
-                        readyQueue.remove(higherpriority); //remove the process that will executed from the RQ
-                        nextProcess = higherpriority;
-
-                    }
-
-                    is_preempted = true;
-                    break;
+                    removeFromReadyQueue(higherpriority); //remove the process that will executed from the RQ
+                    nextProcess = higherpriority;
+                    continue;
                 }
 
-
-                p.remainingTime--; // because the condition in loop runtime < q1 so there still a 1 time not executed
-                currentTIME++;
-                runtime++;
+                int phaseTime = Math.min(q1 + q2 - runtime, p.remainingTime);
+                p.remainingTime -= phaseTime;
+                timeline.run(id, currentTIME, currentTIME + phaseTime);
+                currentTIME += phaseTime;
+                runtime += phaseTime;
 
 
                 while (i < processes.length && processes[i].arrivalTime <= currentTIME) {
 
-                    readyQueue.add(processes[i]);
+                    addToReadyQueue(processes[i]);
                     i++;
 
                 }
             }
 
-            if(is_preempted) continue;
-
             if (p.remainingTime == 0) {
 
                 updateQuantum(p, runtime, 4);
                 finished_Processes.add(p);
                 p.turnaroundTime = currentTIME - p.arrivalTime;
                 p.waitingTime = p.turnaroundTime - p.burstTime;
+                stats.completed(p.arrivalTime, p.burstTime, currentTIME);
                 continue;
 
             }
 
+            Boolean is_preempted = false;
+
             while (runtime < q && runtime >= q1 + q2 && p.remainingTime > 0) { // phase 3 starting check
 
-                Process shortest = getShortestJob(readyQueue);
+                Process shortest = getShortestJob();
                 if (shortest != null && shortest.remainingTime < p.remainingTime) {
 
                     updateQuantum(p, runtime, 3);
-                    readyQueue.add(p);
+                    addToReadyQueue(p);
+                    if (metrics != null) metrics.preempt(SchedulerMetrics.Preemption.SHORTER_JOB, timeline, id, currentTIME);
 
-                    if(readyQueue.get(0) != shortest) {
-
-                        readyQueue.remove(shortest);
-                        nextProcess = shortest;
-
-                    }
+                    removeFromReadyQueue(shortest);
+                    nextProcess = shortest;
 
                     is_preempted = true;
                     break;
@@ -235,13 +296,19 @@ public class AGScheduler {
 
                 }
 
-                p.remainingTime--;
-                currentTIME++;
-                runtime++;
+                // only an arrival can bring in a shorter job, so run until the next one
+                int chunk = Math.min(q - runtime, p.remainingTime);
+                if (i < processes.length) {
+                    chunk = Math.min(chunk, processes[i].arrivalTime - currentTIME);
+                }
+                p.remainingTime -= chunk;
+                timeline.run(id, currentTIME, currentTIME + chunk);
+                currentTIME += chunk;
+                runtime += chunk;
 
 
                 while (i < processes.length && processes[i].arrivalTime <= currentTIME) {
-                    readyQueue.add(processes[i]);
+                    addToReadyQueue(processes[i]);
                     i++;
                 }
             }
@@ -254,19 +321,30 @@ public class AGScheduler {
                 finished_Processes.add(p);
                 p.turnaroundTime = currentTIME - p.arrivalTime;
                 p.waitingTime = p.turnaroundTime - p.burstTime;
+                stats.completed(p.arrivalTime, p.burstTime, currentTIME);
 
             }
             else if (runtime == q && p.remainingTime > 0) {
 
                 updateQuantum(p, runtime, 1);
-                readyQueue.add(p);
+                addToReadyQueue(p);
+                if (metrics != null) metrics.preempt(SchedulerMetrics.Preemption.QUANTUM_EXPIRED, timeline, id, currentTIME);
             }
         }
 
     }
 
+    // view over the timeline: one entry per dispatch
     public List<String> getExecutionOrder() {
-        return execution_Order;
+        return timeline.executionOrder(false);
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    public RunStats getStats() {
+        return stats;
     }
 
     public List<Process> getFinishedProcesses() {
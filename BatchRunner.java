@@ -0,0 +1,196 @@
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Runs many (engine, workload, parameters) scenarios in parallel on a work-stealing pool
+// and aggregates their results into one report.
+//
+// Every scenario simulates on its own Process copies taken from an immutable Workload,
+// so scenarios never share mutable state and can run on any thread in any order.
+//
+// Usage: java BatchRunner --files test_1.json,test_2.json [--ag] [--engines SJF,RR,Priority,AG]
+//                         [--quantum 2,4,8] [--cs 0,1,2] [--aging 3,5] [--threads 8] [--cache dir] [--metrics]
+// Parameter lists are crossed with every file and engine; a missing list keeps the file's own value.
+// With --cache, results are memoized in dir and scenarios already simulated by an earlier run are not re-run.
+// --metrics prints each simulated scenario's SchedulerMetrics after the report.
+public class BatchRunner {
+
+    public static final class Scenario {
+        private final String label;
+        private final String engine;
+        private final Workload workload;
+
+        public Scenario(String label, String engine, Workload workload) {
+            this.label = label;
+            this.engine = engine;
+            this.workload = workload;
+        }
+
+        public String getLabel() { return label; }
+        public String getEngine() { return engine; }
+        public Workload getWorkload() { return workload; }
+    }
+
+    public static final class ScenarioResult {
+        private final Scenario scenario;
+        private final ScheduleResult result;
+        private final long nanos;
+
+        ScenarioResult(Scenario scenario, ScheduleResult result, long nanos) {
+            this.scenario = scenario;
+            this.result = result;
+            this.nanos = nanos;
+        }
+
+        public Scenario getScenario() { return scenario; }
+        public ScheduleResult getResult() { return result; }
+        public long getNanos() { return nanos; }
+    }
+
+    private final ExecutorService pool;
+    private ResultCache cache;
+
+    public BatchRunner(int threads) {
+        this.pool = Executors.newWorkStealingPool(threads);
+    }
+
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchRunner withCache(ResultCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    // results come back in the same order as the scenarios
+    public List<ScenarioResult> runAll(List<Scenario> scenarios) {
+        List<Future<ScenarioResult>> futures = new ArrayList<>(scenarios.size());
+        for (Scenario scenario : scenarios) {
+            Scheduler scheduler = cache != null ? cache.scheduler(scenario.getEngine()) : SchedulerRegistry.get(scenario.getEngine());
+            futures.add(pool.submit(() -> {
+                long start = System.nanoTime();
+                ScheduleResult result = scheduler.run(scenario.getWorkload());
+                return new ScenarioResult(scenario, result, System.nanoTime() - start);
+            }));
+        }
+
+        List<ScenarioResult> results = new ArrayList<>(futures.size());
+        for (Future<ScenarioResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Batch run interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Scenario failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return results;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public static void printReport(List<ScenarioResult> results, long wallNanos) {
+        System.out.printf("%-40s %-9s %6s %6s %6s %12s %12s %10s %10s %10s %7s %6s %10s%n",
+                "Scenario", "Engine", "q", "cs", "aging", "Avg WT", "Avg TAT", "Avg RT", "p95 TAT", "p99 TAT", "Util%", "Jain", "ms");
+        long cpuNanos = 0;
+        for (ScenarioResult r : results) {
+            Workload w = r.getScenario().getWorkload();
+            RunStats stats = r.getResult().getStats();
+            System.out.printf("%-40s %-9s %6d %6d %6d %12.2f %12.2f %10s %10s %10s %7s %6s %10.2f%n",
+                    r.getScenario().getLabel(), r.getScenario().getEngine(),
+                    w.getRrQuantum(), w.getContextSwitch(), w.getAgingInterval(),
+                    r.getResult().getAverageWaitingTime(), r.getResult().getAverageTurnaroundTime(),
+                    stats == null ? "-" : String.format("%.2f", stats.getAverageResponseTime()),
+                    stats == null ? "-" : String.format("%.0f", stats.getTurnaroundPercentile(0.95)),
+                    stats == null ? "-" : String.format("%.0f", stats.getTurnaroundPercentile(0.99)),
+                    stats == null ? "-" : String.format("%.1f", stats.getUtilization() * 100),
+                    stats == null ? "-" : String.format("%.3f", stats.getFairnessIndex()),
+                    r.getNanos() / 1e6);
+            cpuNanos += r.getNanos();
+        }
+        for (ScenarioResult r : results) {
+            DeadlineStats deadlines = r.getResult().getDeadlines();
+            if (deadlines != null) {
+                System.out.printf("%s %s: %s%n", r.getScenario().getLabel(), r.getScenario().getEngine(), deadlines);
+            }
+        }
+        System.out.printf("%d scenarios in %.1f ms wall, %.1f ms summed (%.1fx parallel speedup)%n",
+                results.size(), wallNanos / 1e6, cpuNanos / 1e6, wallNanos == 0 ? 0 : (double) cpuNanos / wallNanos);
+    }
+
+    private static List<Integer> parseInts(String value) {
+        List<Integer> values = new ArrayList<>();
+        for (String s : value.split(",")) values.add(Integer.parseInt(s.trim()));
+        return values;
+    }
+
+    public static void main(String[] args) {
+        List<String> files = new ArrayList<>();
+        List<String> engines = new ArrayList<>(List.of("SJF", "RR", "Priority"));
+        List<Integer> quanta = null, switches = null, agings = null;
+        boolean agFormat = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String cacheDir = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--files" -> files.addAll(List.of(args[++i].split(",")));
+                case "--ag" -> agFormat = true;
+                case "--engines" -> engines = new ArrayList<>(List.of(args[++i].split(",")));
+                case "--quantum" -> quanta = parseInts(args[++i]);
+                case "--cs" -> switches = parseInts(args[++i]);
+                case "--aging" -> agings = parseInts(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--cache" -> cacheDir = args[++i];
+                case "--metrics" -> SchedulerMetrics.setEnabled(true);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        // each file is parsed once; every scenario over it shares the parsed workload
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String file : files) {
+            Workload base = Workload.load(file, agFormat);
+
+            for (int q : quanta == null ? List.of(base.getRrQuantum()) : quanta) {
+                for (int cs : switches == null ? List.of(base.getContextSwitch()) : switches) {
+                    for (int aging : agings == null ? List.of(base.getAgingInterval()) : agings) {
+                        Workload workload = base.withParameters(cs, q, aging);
+                        for (String engine : engines) {
+                            scenarios.add(new Scenario(file, engine, workload));
+                        }
+                    }
+                }
+            }
+        }
+
+        BatchRunner runner = new BatchRunner(threads);
+        ResultCache cache = null;
+        if (cacheDir != null) {
+            cache = new ResultCache(Math.max(1, scenarios.size())).withDiskTier(Paths.get(cacheDir));
+            runner.withCache(cache);
+        }
+        try {
+            long start = System.nanoTime();
+            List<ScenarioResult> results = runner.runAll(scenarios);
+            printReport(results, System.nanoTime() - start);
+            if (SchedulerMetrics.isEnabled()) {
+                for (ScenarioResult r : results) {
+                    if (r.getResult().getMetrics() != null) {
+                        System.out.println(r.getScenario().getLabel() + " " + r.getResult().getMetrics());
+                    }
+                }
+            }
+            if (cache != null) {
+                System.out.printf("cache: %d hits, %d from disk, %d simulated%n",
+                        cache.getHits(), cache.getDiskHits(), cache.getMisses());
+            }
+        } finally {
+            runner.shutdown();
+        }
+    }
+}
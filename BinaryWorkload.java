@@ -0,0 +1,336 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// Columnar binary workload file, read through a memory mapping instead of a JSON parser.
+//
+// Layout, all ints little-endian:
+//   header   magic "WKB1", version, count n, contextSwitch, rrQuantum, agingInterval, flags,
+//            workload name length L, then L bytes of UTF-8 padded to a multiple of 4
+//   columns  arrival[n], burst[n], priority[n], quantum[n]
+//   timing   only if flags has TIMED: deadline[n], period[n]; without TIMED no process has either
+//   names    only if flags has NAMED: nameIndex[n], dictionary size d, offsets[d + 1] into the
+//            byte pool, then the UTF-8 pool; without NAMED the processes are P1..Pn
+//
+// The quantum column is already resolved the way Input does it: the file's rrQuantum for a
+// test_*.json workload, each process's own quantum for an AG_test*.json one. I/O bursts have no
+// column, so converting a workload that has them fails rather than dropping them.
+//
+// Usage: java BinaryWorkload <in.json> <out.wkb> [--ag]
+public final class BinaryWorkload {
+    static final String EXTENSION = ".wkb";
+    private static final int MAGIC = 0x31424B57; // "WKB1" read as a little-endian int
+    private static final int VERSION = 1;
+    private static final int NAMED = 1;
+    private static final int TIMED = 2;
+    private static final int HEADER_INTS = 8;
+
+    private final String name;
+    private final int size;
+    private final int contextSwitch;
+    private final int rrQuantum;
+    private final int agingInterval;
+    // views into the mapping, indexed by process
+    private final IntBuffer arrival;
+    private final IntBuffer burst;
+    private final IntBuffer priority;
+    private final IntBuffer quantum;
+    // null when the workload has no deadlines or periods
+    private final IntBuffer deadline;
+    private final IntBuffer period;
+    // null when the processes are P1..Pn
+    private final IntBuffer nameIndex;
+    private final IntBuffer nameOffsets;
+    private final ByteBuffer namePool;
+
+    private BinaryWorkload(ByteBuffer buffer, String file) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_INTS * 4 || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary workload: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary workload version " + buffer.getInt(4) + ": " + file);
+        }
+        this.size = buffer.getInt(8);
+        this.contextSwitch = buffer.getInt(12);
+        this.rrQuantum = buffer.getInt(16);
+        this.agingInterval = buffer.getInt(20);
+        int flags = buffer.getInt(24);
+        int nameLength = buffer.getInt(28);
+
+        byte[] nameBytes = new byte[nameLength];
+        buffer.get(HEADER_INTS * 4, nameBytes);
+        this.name = nameLength == 0 ? null : new String(nameBytes, StandardCharsets.UTF_8);
+
+        int offset = HEADER_INTS * 4 + padded(nameLength);
+        this.arrival = column(buffer, offset, size);
+        this.burst = column(buffer, offset += size * 4, size);
+        this.priority = column(buffer, offset += size * 4, size);
+        this.quantum = column(buffer, offset += size * 4, size);
+        offset += size * 4;
+
+        if ((flags & TIMED) != 0) {
+            this.deadline = column(buffer, offset, size);
+            this.period = column(buffer, offset += size * 4, size);
+            offset += size * 4;
+        } else {
+            this.deadline = null;
+            this.period = null;
+        }
+
+        if ((flags & NAMED) != 0) {
+            this.nameIndex = column(buffer, offset, size);
+            offset += size * 4;
+            int dictionarySize = buffer.getInt(offset);
+            this.nameOffsets = column(buffer, offset + 4, dictionarySize + 1);
+            offset += 4 + (dictionarySize + 1) * 4;
+            this.namePool = buffer.slice(offset, nameOffsets.get(dictionarySize));
+        } else {
+            this.nameIndex = null;
+            this.nameOffsets = null;
+            this.namePool = null;
+        }
+    }
+
+    private static IntBuffer column(ByteBuffer buffer, int offset, int length) {
+        return buffer.slice(offset, length * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static int padded(int length) {
+        return (length + 3) & ~3;
+    }
+
+    // Maps the file read-only; nothing but the header is touched until a column is read.
+    // The mapping stays valid after the channel is closed.
+    public static BinaryWorkload open(String file) {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            return new BinaryWorkload(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read binary workload " + file, e);
+        }
+    }
+
+    public int size() { return size; }
+    public String getName() { return name; }
+    public int getContextSwitch() { return contextSwitch; }
+    public int getRrQuantum() { return rrQuantum; }
+    public int getAgingInterval() { return agingInterval; }
+
+    // straight reads from the mapping
+    public int getArrivalTime(int i) { return arrival.get(i); }
+    public int getBurstTime(int i) { return burst.get(i); }
+    public int getPriority(int i) { return priority.get(i); }
+    public int getQuantumTime(int i) { return quantum.get(i); }
+    public int getDeadline(int i) { return deadline == null ? 0 : deadline.get(i); }
+    public int getPeriod(int i) { return period == null ? 0 : period.get(i); }
+
+    // decoded from the dictionary on every call, so only names that are printed cost anything
+    public String name(int i) {
+        if (nameIndex == null) return "P" + (i + 1);
+        int entry = nameIndex.get(i);
+        int start = nameOffsets.get(entry);
+        byte[] bytes = new byte[nameOffsets.get(entry + 1) - start];
+        namePool.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Bulk copies of the columns; names keep resolving through the mapping.
+    // The result is a template: fork() it for each simulation run.
+    ProcessTable toTemplate() {
+        return ProcessTable.template(copy(arrival), copy(burst), copy(priority), copy(quantum),
+                deadline == null ? null : copy(deadline), period == null ? null : copy(period),
+                nameIndex == null ? null : this::name);
+    }
+
+    private int[] copy(IntBuffer column) {
+        int[] values = new int[size];
+        column.get(0, values);
+        return values;
+    }
+
+    public Workload toWorkload() {
+        return new Workload(toTemplate(), contextSwitch, rrQuantum, agingInterval);
+    }
+
+    // Streams a JSON workload in the shape Input reads straight into columns; no Process list is kept.
+    public static void convert(String jsonFile, String binaryFile, boolean agFormat) {
+        Input input = new Input();
+        Columns columns = new Columns();
+        if (!input.StreamInput(jsonFile, agFormat, columns::add)) {
+            throw new IllegalArgumentException("Cannot convert " + jsonFile);
+        }
+        write(binaryFile, input.getName(), columns, input.getContextSwitch(), input.getRrQuantum(), input.getAgingInterval());
+    }
+
+    public static void write(String file, Workload workload, String name) {
+        ProcessTable table = workload.toTable();
+        Columns columns = new Columns();
+        for (int i = 0; i < table.size; i++) {
+            columns.add(table.name(i), table.arrival[i], table.burst[i], table.priority[i], table.quantum[i],
+                    table.getDeadline(i), table.getPeriod(i));
+        }
+        write(file, name, columns, workload.getContextSwitch(), workload.getRrQuantum(), workload.getAgingInterval());
+    }
+
+    // growable input columns plus the name dictionary being built
+    private static final class Columns {
+        int size;
+        int[] arrival = new int[1024];
+        int[] burst = new int[1024];
+        int[] priority = new int[1024];
+        int[] quantum = new int[1024];
+        int[] deadline = new int[1024];
+        int[] period = new int[1024];
+        int[] nameIndex = new int[1024];
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> dictionaryNames = new ArrayList<>();
+        // stays true while process i is named P(i + 1), in which case no dictionary is written
+        boolean generatedNames = true;
+        // set once any process has a deadline or period
+        boolean timed;
+
+        void add(Process p) {
+            if (!p.getIoBursts().isEmpty()) {
+                throw new IllegalArgumentException("I/O bursts of " + p.getName() + " cannot be stored in " + EXTENSION);
+            }
+            add(p.getName(), p.getArrivalTime(), p.getBurstTime(), p.getPriority(), p.getQuantumTime(),
+                    p.getDeadline(), p.getPeriod());
+        }
+
+        void add(String name, int arrivalTime, int burstTime, int priorityValue, int quantumTime,
+                 int relativeDeadline, int releasePeriod) {
+            if (size == arrival.length) {
+                int capacity = size * 2;
+                arrival = Arrays.copyOf(arrival, capacity);
+                burst = Arrays.copyOf(burst, capacity);
+                priority = Arrays.copyOf(priority, capacity);
+                quantum = Arrays.copyOf(quantum, capacity);
+                deadline = Arrays.copyOf(deadline, capacity);
+                period = Arrays.copyOf(period, capacity);
+                nameIndex = Arrays.copyOf(nameIndex, capacity);
+            }
+            if (name == null) name = "";
+            generatedNames &= name.equals("P" + (size + 1));
+            Integer entry = dictionary.get(name);
+            if (entry == null) {
+                entry = dictionaryNames.size();
+                dictionary.put(name, entry);
+                dictionaryNames.add(name);
+            }
+            arrival[size] = arrivalTime;
+            burst[size] = burstTime;
+            priority[size] = priorityValue;
+            quantum[size] = quantumTime;
+            deadline[size] = relativeDeadline;
+            period[size] = releasePeriod;
+            timed |= relativeDeadline != 0 || releasePeriod != 0;
+            nameIndex[size] = entry;
+            size++;
+        }
+    }
+
+    private static void write(String file, String name, Columns columns, int contextSwitch, int rrQuantum, int agingInterval) {
+        byte[] nameBytes = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+        boolean named = !columns.generatedNames;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChunkWriter out = new ChunkWriter(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(columns.size);
+            out.putInt(contextSwitch);
+            out.putInt(rrQuantum);
+            out.putInt(agingInterval);
+            out.putInt((named ? NAMED : 0) | (columns.timed ? TIMED : 0));
+            out.putInt(nameBytes.length);
+            out.put(nameBytes);
+            out.put(new byte[padded(nameBytes.length) - nameBytes.length]);
+
+            out.putInts(columns.arrival, columns.size);
+            out.putInts(columns.burst, columns.size);
+            out.putInts(columns.priority, columns.size);
+            out.putInts(columns.quantum, columns.size);
+            if (columns.timed) {
+                out.putInts(columns.deadline, columns.size);
+                out.putInts(columns.period, columns.size);
+            }
+
+            if (named) {
+                out.putInts(columns.nameIndex, columns.size);
+                List<byte[]> encoded = new ArrayList<>(columns.dictionaryNames.size());
+                for (String entry : columns.dictionaryNames) {
+                    encoded.add(entry.getBytes(StandardCharsets.UTF_8));
+                }
+                out.putInt(encoded.size());
+                int offset = 0;
+                out.putInt(offset);
+                for (byte[] bytes : encoded) {
+                    out.putInt(offset += bytes.length);
+                }
+                for (byte[] bytes : encoded) {
+                    out.put(bytes);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write binary workload " + file, e);
+        }
+    }
+
+    // little-endian output through one reused direct buffer
+    private static final class ChunkWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        ChunkWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < 4) flush();
+            buffer.putInt(value);
+        }
+
+        void putInts(int[] values, int length) throws IOException {
+            for (int from = 0; from < length; ) {
+                if (buffer.remaining() < 4) flush();
+                int count = Math.min(length - from, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(values, from, count);
+                buffer.position(buffer.position() + count * 4);
+                from += count;
+            }
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int from = 0; from < bytes.length; ) {
+                if (!buffer.hasRemaining()) flush();
+                int count = Math.min(bytes.length - from, buffer.remaining());
+                buffer.put(bytes, from, count);
+                from += count;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java BinaryWorkload <in.json> <out" + EXTENSION + "> [--ag]");
+            return;
+        }
+        boolean agFormat = args.length > 2 && args[2].equals("--ag");
+        long start = System.nanoTime();
+        convert(args[0], args[1], agFormat);
+        BinaryWorkload converted = open(args[1]);
+        System.out.printf("%s: %d processes written to %s in %.1f ms%n", args[0], converted.size(), args[1],
+                (System.nanoTime() - start) / 1e6);
+    }
+}
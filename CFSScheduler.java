@@ -0,0 +1,191 @@
+import java.util.*;
+
+// Completely-fair scheduling in the style of Linux CFS. Every process accumulates virtual runtime,
+// its CPU time scaled by NICE_0_WEIGHT / weight, and the runnable process with the least virtual
+// runtime runs next. Process.priority is read as a nice value: lower is more important, clamped to
+// [-20, 19], and mapped to the kernel's weight table, so each step is worth about 10% CPU.
+//
+// A dispatched process runs for its share of the scheduling period, weight / total runnable weight,
+// where the period is targetLatency, stretched to minGranularity per process once that many are
+// runnable. Arrivals join at the smallest virtual runtime seen so far, so a newcomer neither starves
+// nor monopolizes the CPU, and wait for the current slice to end; there is no wakeup preemption.
+//
+// Ready processes sit in a binary min-heap of indices on (vruntime, arrival order), so picking the
+// next process is O(log n). The running process is outside the heap and goes back in when its slice ends.
+public class CFSScheduler {
+    static final int NICE_0_WEIGHT = 1024;
+    // virtual runtime is kept in 1/2^VRUNTIME_SHIFT time units so heavy weights do not round to zero
+    private static final int VRUNTIME_SHIFT = 20;
+    // weight of nice -20 .. 19, as in the kernel's sched_prio_to_weight
+    private static final int[] NICE_TO_WEIGHT = {
+            88761, 71755, 56483, 46273, 36291,
+            29154, 23254, 18705, 14949, 11916,
+            9548, 7620, 6100, 4904, 3906,
+            3121, 2501, 1991, 1586, 1277,
+            1024, 820, 655, 526, 423,
+            335, 272, 215, 172, 137,
+            110, 87, 70, 56, 45,
+            36, 29, 23, 18, 15,
+    };
+
+    private final ProcessTable table;
+    private final int targetLatency;
+    private final int minGranularity;
+    private final int contextSwitch;
+    private final Timeline timeline;
+    private final RunStats stats = new RunStats();
+    private SchedulerMetrics metrics;
+
+    private final int[] weight;
+    // virtual time added per unit of CPU time
+    private final long[] vruntimeRate;
+    private final long[] vruntime;
+    // position in arrival order, the tie-break between equal virtual runtimes
+    private final int[] arrivalRank;
+    private final int[] heap;
+    private int heapSize;
+
+    public CFSScheduler(ProcessTable table, int targetLatency, int minGranularity, int contextSwitch) {
+        if (minGranularity < 1) throw new IllegalArgumentException("Minimum granularity must be positive: " + minGranularity);
+        if (targetLatency < minGranularity) {
+            throw new IllegalArgumentException("Target latency " + targetLatency + " is below the minimum granularity " + minGranularity);
+        }
+        this.table = table;
+        this.targetLatency = targetLatency;
+        this.minGranularity = minGranularity;
+        this.contextSwitch = contextSwitch;
+        this.timeline = new Timeline(table::name);
+
+        int n = table.size();
+        this.weight = new int[n];
+        this.vruntimeRate = new long[n];
+        for (int i = 0; i < n; i++) {
+            weight[i] = weightOf(table.priority[i]);
+            vruntimeRate[i] = ((long) NICE_0_WEIGHT << VRUNTIME_SHIFT) / weight[i];
+        }
+        this.vruntime = new long[n];
+        this.arrivalRank = new int[n];
+        this.heap = new int[Math.max(1, n)];
+    }
+
+    static int weightOf(int nice) {
+        return NICE_TO_WEIGHT[Math.max(-20, Math.min(19, nice)) + 20];
+    }
+
+    void setMetrics(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void simulate() {
+        int n = table.size();
+        int[] remaining = table.remaining;
+        int[] arrivalOrder = table.sortedByArrival();
+        for (int r = 0; r < n; r++) arrivalRank[arrivalOrder[r]] = r;
+
+        int time = 0;
+        int nextArrival = 0;
+        int completed = 0;
+        int lastRun = -1;
+        // runnable processes, the running one included
+        int runnable = 0;
+        long runnableWeight = 0;
+        long minVruntime = 0;
+
+        while (completed < n) {
+            while (nextArrival < n && table.arrival[arrivalOrder[nextArrival]] <= time) {
+                int i = arrivalOrder[nextArrival++];
+                vruntime[i] = minVruntime;
+                push(i);
+                runnable++;
+                runnableWeight += weight[i];
+            }
+
+            // CPU is idle, jump straight to the next arrival
+            if (heapSize == 0) {
+                timeline.idle(time, table.arrival[arrivalOrder[nextArrival]]);
+                time = table.arrival[arrivalOrder[nextArrival]];
+                continue;
+            }
+
+            if (metrics != null) metrics.decision(heapSize);
+            int current = pop();
+            if (lastRun != -1 && lastRun != current) {
+                if (metrics != null && remaining[lastRun] > 0) {
+                    metrics.preempt(SchedulerMetrics.Preemption.QUANTUM_EXPIRED, timeline, lastRun, time);
+                }
+                timeline.contextSwitch(current, time, time + contextSwitch);
+                time += contextSwitch;
+            }
+            if (remaining[current] == table.burst[current]) {
+                stats.firstDispatch(table.arrival[current], time);
+            }
+
+            long period = runnable > targetLatency / minGranularity ? (long) runnable * minGranularity : targetLatency;
+            long slice = Math.max(1, period * weight[current] / runnableWeight);
+            int runTime = (int) Math.min(remaining[current], slice);
+            timeline.run(current, time, time + runTime);
+            remaining[current] -= runTime;
+            time += runTime;
+            vruntime[current] += runTime * vruntimeRate[current];
+            lastRun = current;
+
+            if (remaining[current] == 0) {
+                table.turnaround[current] = time - table.arrival[current];
+                table.waiting[current] = table.turnaround[current] - table.burst[current];
+                stats.completed(table.arrival[current], table.burst[current], time);
+                completed++;
+                runnable--;
+                runnableWeight -= weight[current];
+            } else {
+                push(current);
+            }
+            // the floor for newcomers only moves forward, so they never jump ahead of earlier ones
+            if (heapSize > 0) minVruntime = Math.max(minVruntime, vruntime[heap[0]]);
+        }
+    }
+
+    private boolean less(int a, int b) {
+        if (vruntime[a] != vruntime[b]) return vruntime[a] < vruntime[b];
+        return arrivalRank[a] < arrivalRank[b];
+    }
+
+    private void push(int process) {
+        int slot = heapSize++;
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!less(process, heap[parent])) break;
+            heap[slot] = heap[parent];
+            slot = parent;
+        }
+        heap[slot] = process;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        int slot = 0;
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) child++;
+            if (!less(heap[child], last)) break;
+            heap[slot] = heap[child];
+            slot = child;
+        }
+        heap[slot] = last;
+        return top;
+    }
+
+    // view over the timeline: a new entry whenever a different process takes the CPU
+    public List<String> getExecutionOrder() {
+        return timeline.executionOrder(true);
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    public RunStats getStats() {
+        return stats;
+    }
+}
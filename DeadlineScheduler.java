@@ -0,0 +1,279 @@
+import java.util.*;
+
+// Preemptive real-time scheduling of jobs. Every process releases a job at its arrival and, when it
+// has a period, another one every period after that while the release is before the horizon. A job's
+// absolute deadline is its release plus the process's deadline, or plus its period when it has none.
+//   EDF             the pending job with the earliest absolute deadline runs
+//   RATE_MONOTONIC  the process with the shortest period runs; priorities are fixed
+// Jobs without a deadline under EDF, and processes without a period under RM, run in the background
+// in release order. Late jobs still run to completion, and a job released while the previous job of
+// the same process is unfinished waits behind it.
+//
+// Time moves from event to event, a release or a completion, never tick by tick. Releases are events
+// on a TimingWheel, O(1) each, and the ready queue is a binary heap of process indices, so each job
+// costs O(log n) however long the hyperperiod. A process has at most one job in the ready queue, its
+// oldest unfinished one; the rest are only counted and rebuilt from the release count, so no per-job
+// state is kept.
+//
+// A process's waiting and turnaround time are those of its slowest job. RunStats count every job, and
+// DeadlineStats every job with a deadline, along with the analytic Schedulability verdict.
+public class DeadlineScheduler {
+    public enum Policy { EDF, RATE_MONOTONIC }
+
+    // longest stretch of periodic releases defaultHorizon simulates past the last arrival
+    static final int MAX_SIMULATED_HYPERPERIOD = 1 << 20;
+
+    private final ProcessTable table;
+    private final Policy policy;
+    private final int contextSwitch;
+    private final int horizon;
+    private final Timeline timeline;
+    private final RunStats stats = new RunStats();
+    private final DeadlineStats deadlines = new DeadlineStats();
+    private SchedulerMetrics metrics;
+
+    // relative deadline in force, 0 for none
+    private final int[] relativeDeadline;
+    private final int[] arrivalRank;
+    private final int[] jobsReleased;
+    private final int[] jobsDone;
+    // release time and ready-queue key of each process's oldest unfinished job
+    private final long[] release;
+    private final long[] key;
+    private final long[] nextRelease;
+    private final IndexHeap ready;
+    // next release of each process, in any order among equal times: the ready heap orders them fully
+    private final TimingWheel calendar = new TimingWheel();
+
+    // periodic processes release jobs at times before horizon; aperiodic ones release their single job regardless
+    public DeadlineScheduler(ProcessTable table, Policy policy, int contextSwitch, int horizon) {
+        this.table = table;
+        this.policy = policy;
+        this.contextSwitch = contextSwitch;
+        this.horizon = horizon;
+        this.timeline = new Timeline(table::name);
+
+        int n = table.size();
+        this.relativeDeadline = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (table.getDeadline(i) < 0 || table.getPeriod(i) < 0) {
+                throw new IllegalArgumentException("Negative deadline or period for " + table.name(i));
+            }
+            relativeDeadline[i] = table.getDeadline(i) > 0 ? table.getDeadline(i) : table.getPeriod(i);
+        }
+        this.arrivalRank = new int[n];
+        this.jobsReleased = new int[n];
+        this.jobsDone = new int[n];
+        this.release = new long[n];
+        this.key = new long[n];
+        this.nextRelease = new long[n];
+        this.ready = new IndexHeap(n, this::before);
+    }
+
+    // The last arrival plus one hyperperiod of the periods, so every periodic process runs through a
+    // full cycle after all have started; at most MAX_SIMULATED_HYPERPERIOD past the last arrival.
+    public static int defaultHorizon(ProcessTable table) {
+        int lastArrival = 0;
+        int periodic = 0;
+        for (int i = 0; i < table.size; i++) {
+            lastArrival = Math.max(lastArrival, table.arrival[i]);
+            if (table.getPeriod(i) > 0) periodic++;
+        }
+        long[] periods = new long[periodic];
+        for (int i = 0, k = 0; i < table.size; i++) {
+            if (table.getPeriod(i) > 0) periods[k++] = table.getPeriod(i);
+        }
+        long span = Math.min(Schedulability.hyperperiod(periods), MAX_SIMULATED_HYPERPERIOD);
+        return (int) Math.min(Integer.MAX_VALUE, lastArrival + span);
+    }
+
+    void setMetrics(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void simulate() {
+        int n = table.size();
+        int[] remaining = table.remaining;
+        int[] arrivalOrder = table.sortedByArrival();
+        for (int r = 0; r < n; r++) {
+            int i = arrivalOrder[r];
+            arrivalRank[i] = r;
+            nextRelease[i] = table.arrival[i];
+            calendar.schedule(releaseSlot(i), i);
+        }
+        deadlines.setSchedulability(policy == Policy.EDF ? Schedulability.edf(table) : Schedulability.rateMonotonic(table));
+
+        int time = 0;
+        int running = -1;
+        int lastRun = -1;
+        while (running != -1 || ready.size > 0 || !calendar.isEmpty()) {
+            releaseUpTo(time);
+
+            // CPU is idle, jump straight to the next release
+            if (running == -1 && ready.size == 0) {
+                int next = (int) calendar.nextTime();
+                timeline.idle(time, next);
+                time = next;
+                continue;
+            }
+
+            if (running != -1 && ready.size > 0 && before(ready.peek(), running)) {
+                if (metrics != null) {
+                    metrics.preempt(SchedulerMetrics.Preemption.HIGHER_PRIORITY, timeline, running, time);
+                }
+                ready.push(running);
+                running = -1;
+            }
+            if (running == -1) {
+                if (metrics != null) metrics.decision(ready.size);
+                running = ready.pop();
+            }
+
+            boolean switched = lastRun != -1 && lastRun != running;
+            if (switched) {
+                timeline.contextSwitch(running, time, time + contextSwitch);
+                time += contextSwitch;
+                releaseUpTo(time);
+            }
+            if (remaining[running] == table.burst[running]) {
+                stats.firstDispatch((int) release[running], time);
+            }
+
+            // run until the job finishes or the next release; a more urgent job released during the
+            // switch waits one unit, as in SJF
+            int runTime = remaining[running];
+            if (!calendar.isEmpty()) runTime = (int) Math.min(runTime, calendar.nextTime() - time);
+            if (switched && ready.size > 0 && before(ready.peek(), running)) runTime = Math.min(runTime, 1);
+            timeline.run(running, time, time + runTime);
+            remaining[running] -= runTime;
+            time += runTime;
+            lastRun = running;
+
+            if (remaining[running] == 0) {
+                finishJob(running, time);
+                running = -1;
+            }
+        }
+    }
+
+    private void releaseUpTo(int time) {
+        while (calendar.nextTime() <= time) {
+            int i = calendar.poll();
+            jobsReleased[i]++;
+            // the process had nothing pending, so this job is its oldest; otherwise it only queues
+            if (jobsReleased[i] - jobsDone[i] == 1) {
+                startJob(i);
+                ready.push(i);
+            }
+            int period = table.getPeriod(i);
+            if (period > 0 && nextRelease[i] + period < horizon) {
+                nextRelease[i] += period;
+                calendar.schedule(releaseSlot(i), i);
+            }
+        }
+    }
+
+    // calendar time of the process's next release: releases before the calendar's time, which only
+    // negative arrivals have, are due at once, as releaseUpTo would take them
+    private int releaseSlot(int i) {
+        return (int) Math.max(nextRelease[i], calendar.now());
+    }
+
+    // makes the process's oldest unfinished job the one it queues with
+    private void startJob(int i) {
+        table.remaining[i] = table.burst[i];
+        release[i] = table.arrival[i] + (long) jobsDone[i] * table.getPeriod(i);
+        if (policy == Policy.EDF) {
+            key[i] = relativeDeadline[i] > 0 ? release[i] + relativeDeadline[i] : Long.MAX_VALUE;
+        } else {
+            key[i] = table.getPeriod(i) > 0 ? table.getPeriod(i) : Long.MAX_VALUE;
+        }
+    }
+
+    private void finishJob(int i, int time) {
+        int released = (int) release[i];
+        int burst = table.burst[i];
+        stats.completed(released, burst, time);
+        if (relativeDeadline[i] > 0) deadlines.job(release[i] + relativeDeadline[i], time);
+        if (time - released > table.turnaround[i]) {
+            table.turnaround[i] = time - released;
+            table.waiting[i] = table.turnaround[i] - burst;
+        }
+        jobsDone[i]++;
+        if (jobsDone[i] < jobsReleased[i]) {
+            startJob(i);
+            ready.push(i);
+        }
+    }
+
+    // ready order: key, then release, then arrival order
+    private boolean before(int a, int b) {
+        if (key[a] != key[b]) return key[a] < key[b];
+        if (release[a] != release[b]) return release[a] < release[b];
+        return arrivalRank[a] < arrivalRank[b];
+    }
+
+    // binary min-heap of process indices, each present at most once
+    private static final class IndexHeap {
+        interface Order {
+            boolean less(int a, int b);
+        }
+
+        private final int[] heap;
+        private final Order order;
+        int size;
+
+        IndexHeap(int capacity, Order order) {
+            this.heap = new int[Math.max(1, capacity)];
+            this.order = order;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        void push(int process) {
+            int slot = size++;
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (!order.less(process, heap[parent])) break;
+                heap[slot] = heap[parent];
+                slot = parent;
+            }
+            heap[slot] = process;
+        }
+
+        int pop() {
+            int top = heap[0];
+            int last = heap[--size];
+            int slot = 0;
+            while (true) {
+                int child = 2 * slot + 1;
+                if (child >= size) break;
+                if (child + 1 < size && order.less(heap[child + 1], heap[child])) child++;
+                if (!order.less(heap[child], last)) break;
+                heap[slot] = heap[child];
+                slot = child;
+            }
+            heap[slot] = last;
+            return top;
+        }
+    }
+
+    // view over the timeline: a new entry whenever a different process takes the CPU
+    public List<String> getExecutionOrder() {
+        return timeline.executionOrder(true);
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    public RunStats getStats() {
+        return stats;
+    }
+
+    public DeadlineStats getDeadlineStats() {
+        return deadlines;
+    }
+}
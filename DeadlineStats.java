@@ -0,0 +1,100 @@
+import java.io.*;
+
+// Deadline outcome of a real-time run. A job is one release of a process, so a periodic process
+// contributes one per period; only jobs with a deadline are counted. Lateness is completion minus
+// absolute deadline, negative for a job that finished early. Its distribution is kept as two
+// QuantileSketches, slack for jobs on time and tardiness for late ones, so like RunStats it costs
+// the same for any run length and merges across runs.
+public final class DeadlineStats {
+    private long jobs;
+    private long misses;
+    private long totalLateness;
+    private long maxLateness = Long.MIN_VALUE;
+    private QuantileSketch slack = new QuantileSketch();
+    private QuantileSketch tardiness = new QuantileSketch();
+    private Schedulability schedulability;
+
+    void job(long deadline, long completion) {
+        long lateness = completion - deadline;
+        jobs++;
+        totalLateness += lateness;
+        if (lateness > maxLateness) maxLateness = lateness;
+        if (lateness > 0) {
+            misses++;
+            tardiness.add(lateness);
+        } else {
+            slack.add(-lateness);
+        }
+    }
+
+    void setSchedulability(Schedulability schedulability) {
+        this.schedulability = schedulability;
+    }
+
+    // adds other's jobs to these; the schedulability verdict is kept only while it is the only one
+    public void merge(DeadlineStats other) {
+        schedulability = jobs == 0 && schedulability == null ? other.schedulability : null;
+        jobs += other.jobs;
+        misses += other.misses;
+        totalLateness += other.totalLateness;
+        maxLateness = Math.max(maxLateness, other.maxLateness);
+        slack.merge(other.slack);
+        tardiness.merge(other.tardiness);
+    }
+
+    DeadlineStats copy() {
+        DeadlineStats copy = new DeadlineStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    // the sums, the two sketches, then the verdict when there is one
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeLong(jobs);
+        out.writeLong(misses);
+        out.writeLong(totalLateness);
+        out.writeLong(maxLateness);
+        slack.writeBinary(out);
+        tardiness.writeBinary(out);
+        out.writeBoolean(schedulability != null);
+        if (schedulability != null) schedulability.writeBinary(out);
+    }
+
+    static DeadlineStats readBinary(DataInputStream in) throws IOException {
+        DeadlineStats stats = new DeadlineStats();
+        stats.jobs = in.readLong();
+        stats.misses = in.readLong();
+        stats.totalLateness = in.readLong();
+        stats.maxLateness = in.readLong();
+        stats.slack = QuantileSketch.readBinary(in);
+        stats.tardiness = QuantileSketch.readBinary(in);
+        if (in.readBoolean()) stats.schedulability = Schedulability.readBinary(in);
+        return stats;
+    }
+
+    public long getJobs() { return jobs; }
+    public long getMisses() { return misses; }
+    public double getMissRatio() { return jobs == 0 ? 0 : (double) misses / jobs; }
+    public double getAverageLateness() { return jobs == 0 ? 0 : (double) totalLateness / jobs; }
+    public long getMaxLateness() { return jobs == 0 ? 0 : maxLateness; }
+    // null when the run had no analytic test
+    public Schedulability getSchedulability() { return schedulability; }
+
+    // Nearest-rank quantile of the lateness, q in [0, 1], with QuantileSketch's accuracy; 0 for no jobs.
+    // The early side is read from the slack sketch in reverse.
+    public double getLatenessPercentile(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("Quantile out of range: " + q);
+        if (jobs == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * jobs));
+        long early = slack.count();
+        return rank <= early ? 0 - slack.valueAtRank(early - rank + 1) : tardiness.valueAtRank(rank - early);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d jobs with deadlines, %d missed (%.1f%%), lateness avg %.2f p50 %.0f p95 %.0f p99 %.0f max %d%s",
+                jobs, misses, getMissRatio() * 100, getAverageLateness(), getLatenessPercentile(0.5),
+                getLatenessPercentile(0.95), getLatenessPercentile(0.99), getMaxLateness(),
+                schedulability == null ? "" : "; " + schedulability);
+    }
+}
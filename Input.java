@@ -0,0 +1,181 @@
+import java.util.*;
+import java.util.function.Consumer;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import com.google.gson.stream.JsonReader;
+
+class Input {
+    private ArrayList<Process> processes = new ArrayList<>();
+    private String name;
+    private int contextSwitch;
+    private int rrQuantum;
+    private int agingInterval;
+    // machine for the multi-core tests
+    private int cores = 1;
+    private int partitions = 1;
+
+    public Input ReadInput(String filename) {
+        this.processes.clear();
+        StreamInput(filename, false, processes::add);
+        return this;
+    }
+
+    public Input ReadAGInput(String filename) {
+        this.processes.clear();
+        StreamInput(filename, true, processes::add);
+        return this;
+    }
+
+    // Pulls the file token by token and hands each process to sink as soon as it is read,
+    // so memory stays bounded however many processes the file holds. The header fields are
+    // known before the first process reaches sink, wherever they are in the input object.
+    // Returns false if the file could not be read.
+    public boolean StreamInput(String filename, boolean agFormat, Consumer<Process> sink) {
+        try (JsonReader reader = open(filename)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                if (key.equals("name")) {
+                    this.name = reader.nextString();
+                } else if (key.equals("input")) {
+                    readInputObject(reader, filename, agFormat, sink);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return true;
+
+        } catch (FileNotFoundException e) {
+            System.out.println("Error: File not found! Check the path: " + filename);
+        } catch (Exception e) {
+            System.out.println("Error reading JSON: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    private static JsonReader open(String filename) throws IOException {
+        return new JsonReader(new BufferedReader(
+                new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8), 1 << 16));
+    }
+
+    private void readInputObject(JsonReader reader, String filename, boolean agFormat, Consumer<Process> sink) throws IOException {
+        // AG processes carry their own quantum, and the AG engine takes no header fields
+        boolean headerKnown = agFormat;
+        int seen = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (key.equals("processes")) {
+                if (!headerKnown && seen != HEADER_FIELDS) readHeader(filename);
+                headerKnown = true;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    sink.accept(readProcess(reader, agFormat));
+                }
+                reader.endArray();
+            } else {
+                seen |= readHeaderField(reader, key);
+            }
+        }
+        reader.endObject();
+    }
+
+    // the fields every process depends on: rrQuantum, contextSwitch and agingInterval
+    private static final int HEADER_FIELDS = 0b111;
+
+    // reads one field of the input object other than processes; returns its bit in HEADER_FIELDS
+    private int readHeaderField(JsonReader reader, String key) throws IOException {
+        switch (key) {
+            case "rrQuantum" -> { this.rrQuantum = reader.nextInt(); return 0b001; }
+            case "contextSwitch" -> { this.contextSwitch = reader.nextInt(); return 0b010; }
+            case "agingInterval" -> { this.agingInterval = reader.nextInt(); return 0b100; }
+            case "cores" -> this.cores = reader.nextInt();
+            case "partitions" -> this.partitions = reader.nextInt();
+            default -> reader.skipValue();
+        }
+        return 0;
+    }
+
+    // For a file that lists processes before some header field: a second pass over the input object
+    // reads the header and skips the processes, so none is built with a stale rrQuantum.
+    private void readHeader(String filename) throws IOException {
+        try (JsonReader reader = open(filename)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("input")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String key = reader.nextName();
+                    if (key.equals("processes")) reader.skipValue();
+                    else readHeaderField(reader, key);
+                }
+                return;
+            }
+        }
+    }
+
+    private Process readProcess(JsonReader reader, boolean agFormat) throws IOException {
+        String pName = null;
+        int pArrival = 0, pBurst = 0, pPriority = 0, pDeadline = 0, pPeriod = 0;
+        int pquantum = this.rrQuantum;
+        List<IoBurst> pIo = List.of();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> pName = reader.nextString();
+                case "arrival" -> pArrival = reader.nextInt();
+                case "burst" -> pBurst = reader.nextInt();
+                case "priority" -> pPriority = reader.nextInt();
+                case "deadline" -> pDeadline = reader.nextInt();
+                case "period" -> pPeriod = reader.nextInt();
+                case "io" -> pIo = readIoBursts(reader);
+                case "quantum" -> {
+                    if (agFormat) pquantum = reader.nextInt();
+                    else reader.skipValue();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        Process process = new Process(pName, pArrival, pBurst, pPriority, pquantum);
+        process.setDeadline(pDeadline);
+        process.setPeriod(pPeriod);
+        process.setIoBursts(pIo);
+        return process;
+    }
+
+    private List<IoBurst> readIoBursts(JsonReader reader) throws IOException {
+        List<IoBurst> bursts = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String device = null;
+            int time = 0, burst = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "device" -> device = reader.nextString();
+                    case "time" -> time = reader.nextInt();
+                    case "burst" -> burst = reader.nextInt();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            bursts.add(new IoBurst(device, time, burst));
+        }
+        reader.endArray();
+        return bursts;
+    }
+
+    public ArrayList<Process> getProcesses() { return processes; }
+    public String getName() { return name; }
+    public int getContextSwitch() { return contextSwitch; }
+    public int getRrQuantum() { return rrQuantum; }
+    public int getAgingInterval() { return agingInterval; }
+    public int getCores() { return cores; }
+    public int getPartitions() { return partitions; }
+}
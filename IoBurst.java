@@ -0,0 +1,26 @@
+// One I/O request in a process's burst sequence: time units on the named device, then a CPU burst of
+// burst units before the next request or the end of the process. Read from "io" in the JSON input:
+//   {"name": "P1", "arrival": 0, "burst": 4, "io": [{"device": "disk", "time": 6, "burst": 3}]}
+public final class IoBurst {
+    private final String device;
+    private final int time;
+    private final int burst;
+
+    public IoBurst(String device, int time, int burst) {
+        if (device == null) throw new IllegalArgumentException("I/O burst without a device");
+        if (time < 1) throw new IllegalArgumentException("I/O time must be positive: " + time);
+        if (burst < 0) throw new IllegalArgumentException("Negative CPU burst after I/O: " + burst);
+        this.device = device;
+        this.time = time;
+        this.burst = burst;
+    }
+
+    public String getDevice() { return device; }
+    public int getTime() { return time; }
+    public int getBurst() { return burst; }
+
+    @Override
+    public String toString() {
+        return device + " " + time + " then cpu " + burst;
+    }
+}
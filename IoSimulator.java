@@ -0,0 +1,274 @@
+import java.util.*;
+
+// CPU and I/O simulation. A process alternates CPU and I/O: its burst, then for each of its IoBursts
+// a request to the named device followed by that IoBurst's CPU burst. A device serves one request at
+// a time; the processes waiting for it sit in its blocked queue in FIFO order. The CPU is one online
+// engine (OnlineScheduler), and each CPU burst enters that engine's ready queue as a job of its own,
+// arriving when the process arrives or when its I/O completes. So SJF ranks by the coming burst, RR
+// starts a fresh quantum, and Priority and AG start from the process's input priority and quantum.
+// A CPU burst of 0 is skipped, so a process can start with I/O or end on it.
+//
+// Arrivals and I/O completions are events on a TimingWheel, so each costs O(1) however many are
+// pending and however far apart they are. The engine is advanced from event to event. It stops one
+// unit before each event, so a wake-up is submitted the way the engines expect an arrival, and never
+// past its current decision, so a finished CPU burst blocks its process at the time it finishes.
+//
+// A process's waiting time is its total time in the ready queue, context switches included, and its
+// turnaround runs from arrival to the end of its last burst, so turnaround = CPU + I/O + waiting +
+// time blocked behind other requests.
+//
+// Usage: java IoSimulator --file io.json [--engine RR] [--ag]
+public class IoSimulator {
+
+    public static final class DeviceStats {
+        public final String device;
+        public int requests;
+        public long busyTime;
+        // time requests spent in the blocked queue before being served
+        public long queueWait;
+        public int maxQueue;
+
+        DeviceStats(String device) {
+            this.device = device;
+        }
+
+        public double utilization(int makespan) {
+            return makespan == 0 ? 0 : (double) busyTime / makespan;
+        }
+    }
+
+    public static final class Result {
+        // in workload order, with waiting and turnaround times set
+        public final List<Process> processes;
+        // per process, indexed like processes
+        public final int[] cpuTime;
+        public final int[] ioTime;
+        public final int[] blockedTime;
+        // in order of first use
+        public final List<DeviceStats> devices;
+        public final Timeline cpu;
+        // CPU dispatches as the engine reports them, each CPU burst under its process's name
+        public final List<String> executionOrder;
+        public final int makespan;
+
+        Result(List<Process> processes, int[] cpuTime, int[] ioTime, int[] blockedTime,
+               List<DeviceStats> devices, Timeline cpu, List<String> executionOrder, int makespan) {
+            this.processes = processes;
+            this.cpuTime = cpuTime;
+            this.ioTime = ioTime;
+            this.blockedTime = blockedTime;
+            this.devices = devices;
+            this.cpu = cpu;
+            this.executionOrder = executionOrder;
+            this.makespan = makespan;
+        }
+
+        public double getAverageWaitingTime() {
+            return processes.stream().mapToInt(Process::getWaitingTime).average().orElse(0);
+        }
+
+        public double getAverageTurnaroundTime() {
+            return processes.stream().mapToInt(Process::getTurnaroundTime).average().orElse(0);
+        }
+
+        public double getCpuUtilization() {
+            long busy = 0;
+            for (int i = 0; i < cpu.size(); i++) {
+                if (cpu.getKind(i) == Timeline.RUN) busy += cpu.getEnd(i) - cpu.getStart(i);
+            }
+            return makespan == 0 ? 0 : (double) busy / makespan;
+        }
+    }
+
+    private final String engine;
+
+    public IoSimulator(String engine) {
+        this.engine = engine;
+    }
+
+    public Result run(Workload workload) {
+        return new Run(workload).simulate();
+    }
+
+    // One simulation. Wheel events are 2 * process for an arrival and 2 * device + 1 for the end of
+    // the request a device is serving.
+    private final class Run {
+        final List<Process> processes;
+        final OnlineScheduler cpu;
+        final TimingWheel calendar = new TimingWheel();
+        // the process each submitted CPU burst belongs to
+        final Map<Process, Integer> owner = new IdentityHashMap<>();
+        // I/O requests done so far, which also picks the next CPU burst
+        final int[] step;
+        final int[] cpuTime;
+        final int[] ioTime;
+        final int[] blockedTime;
+        final int[] blockedSince;
+        final Map<String, Integer> deviceIndex = new HashMap<>();
+        final List<DeviceStats> devices = new ArrayList<>();
+        final List<ArrayDeque<Integer>> blocked = new ArrayList<>();
+        // process each device is serving, -1 when it is free
+        int[] serving = new int[4];
+        int done;
+        int makespan;
+
+        Run(Workload workload) {
+            this.processes = workload.newProcesses();
+            this.cpu = OnlineScheduler.create(engine, workload.getContextSwitch(), workload.getRrQuantum(), workload.getAgingInterval());
+            int n = processes.size();
+            this.step = new int[n];
+            this.cpuTime = new int[n];
+            this.ioTime = new int[n];
+            this.blockedTime = new int[n];
+            this.blockedSince = new int[n];
+        }
+
+        Result simulate() {
+            int n = processes.size();
+            for (int i = 0; i < n; i++) {
+                Process p = processes.get(i);
+                if (p.getArrivalTime() < 0) throw new IllegalArgumentException("Negative arrival for " + p.getName());
+                calendar.schedule(p.getArrivalTime(), 2 * i);
+            }
+
+            int seen = 0;
+            while (done < n) {
+                int clock = cpu.getTime();
+                // events of the next unit are handled now, so wake-ups reach the engine before it gets there
+                while (calendar.nextTime() <= clock + 1) {
+                    int event = calendar.poll();
+                    if ((event & 1) == 0) {
+                        startCpu(event >>> 1, calendar.now());
+                    } else {
+                        requestDone(event >>> 1, calendar.now());
+                    }
+                }
+                if (done == n) break;
+
+                OnlineScheduler.Decision decision = cpu.nextDecision();
+                long until = calendar.nextTime() - 1;
+                // a zero-length switch resolves within the next unit
+                if (decision.until >= 0) until = Math.min(until, Math.max(decision.until, clock + 1));
+                // only possible when the CPU and every device are idle, yet work sits unfinished
+                if (until >= Integer.MAX_VALUE) throw new IllegalStateException("Simulation stalled at " + clock);
+                cpu.advanceTo((int) until);
+
+                List<Process> finished = cpu.getFinishedProcesses();
+                while (seen < finished.size()) {
+                    Process burst = finished.get(seen++);
+                    int i = owner.remove(burst);
+                    cpuTime[i] += burst.getBurstTime();
+                    processes.get(i).setWaitingTime(processes.get(i).getWaitingTime() + burst.getWaitingTime());
+                    afterCpu(i, burst.getArrivalTime() + burst.getTurnaroundTime());
+                }
+            }
+            // lets a trailing context switch finish, as in the single-CPU engines
+            cpu.drain();
+            return new Result(processes, cpuTime, ioTime, blockedTime, devices, cpu.getTimeline(), cpu.getExecutionOrder(), makespan);
+        }
+
+        // the process becomes ready for its next CPU burst at time
+        void startCpu(int i, int time) {
+            Process p = processes.get(i);
+            int burst = step[i] == 0 ? p.getBurstTime() : p.getIoBursts().get(step[i] - 1).getBurst();
+            if (burst == 0) {
+                afterCpu(i, time);
+                return;
+            }
+            Process job = new Process(p.getName(), time, burst, p.getPriority(), p.getQuantumTime());
+            owner.put(job, i);
+            cpu.submit(job);
+        }
+
+        // the process finished a CPU burst at time: it blocks on its next device or is done
+        void afterCpu(int i, int time) {
+            Process p = processes.get(i);
+            if (step[i] == p.getIoBursts().size()) {
+                p.setTurnaroundTime(time - p.getArrivalTime());
+                makespan = Math.max(makespan, time);
+                done++;
+                return;
+            }
+            int d = device(p.getIoBursts().get(step[i]).getDevice());
+            if (serving[d] < 0) {
+                serve(d, i, time);
+            } else {
+                blocked.get(d).add(i);
+                blockedSince[i] = time;
+                devices.get(d).maxQueue = Math.max(devices.get(d).maxQueue, blocked.get(d).size());
+            }
+        }
+
+        void serve(int d, int i, int time) {
+            int length = processes.get(i).getIoBursts().get(step[i]).getTime();
+            serving[d] = i;
+            devices.get(d).requests++;
+            devices.get(d).busyTime += length;
+            ioTime[i] += length;
+            calendar.schedule(time + length, 2 * d + 1);
+        }
+
+        // the device finished the request it was serving; the next blocked process is served and the
+        // finished one wakes up
+        void requestDone(int d, int time) {
+            int i = serving[d];
+            serving[d] = -1;
+            step[i]++;
+            Integer next = blocked.get(d).poll();
+            if (next != null) {
+                blockedTime[next] += time - blockedSince[next];
+                devices.get(d).queueWait += time - blockedSince[next];
+                serve(d, next, time);
+            }
+            startCpu(i, time);
+        }
+
+        int device(String name) {
+            Integer d = deviceIndex.get(name);
+            if (d == null) {
+                d = devices.size();
+                deviceIndex.put(name, d);
+                devices.add(new DeviceStats(name));
+                blocked.add(new ArrayDeque<>());
+                if (d == serving.length) serving = Arrays.copyOf(serving, d * 2);
+                serving[d] = -1;
+            }
+            return d;
+        }
+    }
+
+    // buffered, since the per-process table can be very long
+    public static void printReport(Result result) {
+        java.io.PrintWriter out = new java.io.PrintWriter(new java.io.BufferedWriter(new java.io.OutputStreamWriter(System.out)));
+        out.printf(Locale.ROOT, "makespan %d, avg WT %.2f, avg TAT %.2f, CPU util %.1f%%%n",
+                result.makespan, result.getAverageWaitingTime(), result.getAverageTurnaroundTime(),
+                100 * result.getCpuUtilization());
+        out.println("device      util%  requests   busy  queueWait  maxQueue");
+        for (DeviceStats device : result.devices) {
+            out.printf(Locale.ROOT, "%-10s %6.1f %9d %6d %10d %9d%n", device.device, 100 * device.utilization(result.makespan),
+                    device.requests, device.busyTime, device.queueWait, device.maxQueue);
+        }
+        out.println("process  CPU   IO  WT  blocked  TAT");
+        for (int i = 0; i < result.processes.size(); i++) {
+            Process p = result.processes.get(i);
+            out.printf("%-7s %4d %4d %3d %8d %4d%n", p.getName(), result.cpuTime[i], result.ioTime[i],
+                    p.getWaitingTime(), result.blockedTime[i], p.getTurnaroundTime());
+        }
+        out.flush();
+    }
+
+    public static void main(String[] args) {
+        String file = null, engine = "RR";
+        boolean agFormat = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--file" -> file = args[++i];
+                case "--ag" -> agFormat = true;
+                case "--engine" -> engine = args[++i];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("--file is required");
+        printReport(new IoSimulator(engine).run(Workload.load(file, agFormat)));
+    }
+}
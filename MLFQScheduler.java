@@ -0,0 +1,261 @@
+import java.util.*;
+
+// Multi-level feedback queue. Level 0 is the highest; level k has quantum baseQuantum * 2^k.
+//   - a new process enters level 0
+//   - a process that uses up its level's quantum, over one or several dispatches, moves down a level
+//   - a process preempted by a higher level keeps its used quantum and resumes first on its level
+//   - every boostInterval time units all processes move back to level 0 with a fresh quantum
+//
+// The per-process quantum state is the one AG keeps on Process: quantumTime is the quantum of the
+// current level, quantumUsed what has been spent of it, and quantumHistory records every quantum
+// the process was given.
+//
+// Ready processes sit in one FIFO list per level, threaded through next/prev arrays, and a bitmap
+// marks the non-empty levels, so picking the next process is a trailing-zero count whatever the
+// number of ready processes. A boost splices the lists in O(levels); each process picks up its reset
+// lazily when it is next dispatched, through the boost epoch it last saw.
+public class MLFQScheduler {
+    static final int MAX_LEVELS = 64;
+
+    private final List<Process> processes;
+    private final int[] levelQuantum;
+    private final int boostInterval;
+    private final int contextSwitch;
+    private final Timeline timeline;
+    private final RunStats stats = new RunStats();
+    private SchedulerMetrics metrics;
+
+    private final int[] level;
+    private final int[] seenEpoch;
+    private int epoch;
+    // ready lists: head and tail per level, next and prev per process, -1 for none
+    private final int[] head;
+    private final int[] tail;
+    private final int[] next;
+    private final int[] prev;
+    private long nonEmpty;
+    private int readyCount;
+
+    // boostInterval <= 0 turns boosting off
+    public MLFQScheduler(List<Process> processes, int levels, int baseQuantum, int boostInterval, int contextSwitch) {
+        if (levels < 1 || levels > MAX_LEVELS) {
+            throw new IllegalArgumentException("Levels must be between 1 and " + MAX_LEVELS + ": " + levels);
+        }
+        if (baseQuantum < 1) throw new IllegalArgumentException("Quantum must be positive: " + baseQuantum);
+        this.processes = processes;
+        this.levelQuantum = new int[levels];
+        for (int k = 0; k < levels; k++) {
+            levelQuantum[k] = (int) Math.min(Integer.MAX_VALUE, (long) baseQuantum << Math.min(k, 31));
+        }
+        this.boostInterval = boostInterval;
+        this.contextSwitch = contextSwitch;
+        this.timeline = new Timeline(i -> processes.get(i).getName());
+
+        int n = processes.size();
+        this.level = new int[n];
+        this.seenEpoch = new int[n];
+        this.next = new int[n];
+        this.prev = new int[n];
+        this.head = new int[levels];
+        this.tail = new int[levels];
+        Arrays.fill(head, -1);
+        Arrays.fill(tail, -1);
+    }
+
+    void setMetrics(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void simulate() {
+        int n = processes.size();
+        int[] arrivals = new int[n];
+        for (int i = 0; i < n; i++) arrivals[i] = processes.get(i).getArrivalTime();
+        int[] byArrival = TimingWheel.sortedIndices(arrivals, n);
+
+        int time = 0;
+        int nextArrival = 0;
+        int completed = 0;
+        int running = -1;
+        int lastRun = -1;
+        long nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE;
+
+        while (completed < n) {
+            while (nextArrival < n && arrivals[byArrival[nextArrival]] <= time) {
+                admit(byArrival[nextArrival++]);
+            }
+            nextBoost = boostUpTo(time, nextBoost);
+
+            if (running == -1 && readyCount == 0) {
+                // CPU is idle, jump straight to the next arrival
+                int arrival = arrivals[byArrival[nextArrival]];
+                timeline.idle(time, arrival);
+                time = arrival;
+                continue;
+            }
+
+            if (running != -1) {
+                refresh(running);
+                // only a strictly higher level can take the CPU from the running process
+                if (readyCount > 0 && topLevel() < level[running]) {
+                    if (metrics != null) {
+                        metrics.preempt(SchedulerMetrics.Preemption.HIGHER_PRIORITY, timeline, running, time);
+                    }
+                    pushFront(running);
+                    running = -1;
+                }
+            }
+            if (running == -1) {
+                if (metrics != null) metrics.decision(readyCount);
+                running = pop(topLevel());
+                refresh(running);
+            }
+
+            Process p = processes.get(running);
+            boolean switched = lastRun != -1 && lastRun != running;
+            if (switched) {
+                timeline.contextSwitch(running, time, time + contextSwitch);
+                time += contextSwitch;
+                while (nextArrival < n && arrivals[byArrival[nextArrival]] <= time) {
+                    admit(byArrival[nextArrival++]);
+                }
+                nextBoost = boostUpTo(time, nextBoost);
+                refresh(running);
+            }
+            if (p.getRemainingTime() == p.getBurstTime()) {
+                stats.firstDispatch(p.getArrivalTime(), time);
+            }
+
+            // run until the quantum is spent, the process finishes, or the next arrival or boost;
+            // a higher level that arrived during the switch waits only one unit, as in SJF
+            long until = Math.min(nextBoost, (long) time + Math.min(p.getRemainingTime(), p.quantumTime - p.quantumUsed));
+            if (nextArrival < n) {
+                until = Math.min(until, arrivals[byArrival[nextArrival]]);
+            }
+            if (switched && readyCount > 0 && topLevel() < level[running]) {
+                until = Math.min(until, time + 1);
+            }
+            int runTime = (int) (until - time);
+            timeline.run(running, time, time + runTime);
+            p.executeProcess(runTime);
+            time += runTime;
+            lastRun = running;
+
+            if (p.getRemainingTime() == 0) {
+                p.setTurnaroundTime(time - p.getArrivalTime());
+                p.setWaitingTime(p.getTurnaroundTime() - p.getBurstTime());
+                stats.completed(p.getArrivalTime(), p.getBurstTime(), time);
+                completed++;
+                running = -1;
+            } else if (p.quantumUsed >= p.quantumTime) {
+                if (metrics != null) {
+                    metrics.preempt(SchedulerMetrics.Preemption.QUANTUM_EXPIRED, timeline, running, time);
+                }
+                setLevel(running, Math.min(level[running] + 1, levelQuantum.length - 1));
+                pushBack(running);
+                running = -1;
+            }
+        }
+    }
+
+    private void admit(int i) {
+        seenEpoch[i] = epoch;
+        setLevel(i, 0);
+        pushBack(i);
+    }
+
+    // gives i the quantum of level k, unused
+    private void setLevel(int i, int k) {
+        Process p = processes.get(i);
+        level[i] = k;
+        p.quantumTime = levelQuantum[k];
+        p.quantumUsed = 0;
+        p.addQuantumToHistory(p.quantumTime);
+    }
+
+    // applies the boosts i has not seen yet
+    private void refresh(int i) {
+        if (seenEpoch[i] != epoch) {
+            seenEpoch[i] = epoch;
+            setLevel(i, 0);
+        }
+    }
+
+    // Applies the boosts due by time and returns when the next one is due. After the first, every
+    // queue is on level 0, so the rest only move the epoch, and an idle gap costs O(1) however long.
+    private long boostUpTo(int time, long nextBoost) {
+        if (nextBoost > time) return nextBoost;
+        long due = (time - nextBoost) / boostInterval + 1;
+        boost();
+        epoch += (int) (due - 1);
+        return nextBoost + due * boostInterval;
+    }
+
+    // appends every lower level to level 0, keeping level order
+    private void boost() {
+        epoch++;
+        for (int k = 1; k < levelQuantum.length; k++) {
+            if (head[k] == -1) continue;
+            if (head[0] == -1) {
+                head[0] = head[k];
+            } else {
+                next[tail[0]] = head[k];
+                prev[head[k]] = tail[0];
+            }
+            tail[0] = tail[k];
+            head[k] = tail[k] = -1;
+        }
+        nonEmpty = head[0] == -1 ? 0 : 1;
+    }
+
+    private int topLevel() {
+        return Long.numberOfTrailingZeros(nonEmpty);
+    }
+
+    private void pushBack(int i) {
+        int k = level[i];
+        next[i] = -1;
+        prev[i] = tail[k];
+        if (tail[k] == -1) head[k] = i;
+        else next[tail[k]] = i;
+        tail[k] = i;
+        nonEmpty |= 1L << k;
+        readyCount++;
+    }
+
+    private void pushFront(int i) {
+        int k = level[i];
+        prev[i] = -1;
+        next[i] = head[k];
+        if (head[k] == -1) tail[k] = i;
+        else prev[head[k]] = i;
+        head[k] = i;
+        nonEmpty |= 1L << k;
+        readyCount++;
+    }
+
+    private int pop(int k) {
+        int i = head[k];
+        head[k] = next[i];
+        if (head[k] == -1) {
+            tail[k] = -1;
+            nonEmpty &= ~(1L << k);
+        } else {
+            prev[head[k]] = -1;
+        }
+        readyCount--;
+        return i;
+    }
+
+    // view over the timeline: a new entry whenever a different process takes the CPU
+    public List<String> getExecutionOrder() {
+        return timeline.executionOrder(true);
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    public RunStats getStats() {
+        return stats;
+    }
+}
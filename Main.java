@@ -2,6 +2,9 @@ import java.util.*;
 
 public class Main {
 
+    // running the same tests again from the menu answers from here instead of re-simulating
+    private static final ResultCache RESULTS = new ResultCache(64);
+
     // =============================================================
     // Helper Methods (Validation & Printing)
     // =============================================================
@@ -15,7 +18,7 @@ public class Main {
         }
     }
 
-    public static boolean validateResults(String testName, List<String> actualOrder, ArrayList<Process> actualProcesses, Output expectedOutput) {
+    public static boolean validateResults(String testName, List<String> actualOrder, List<Process> actualProcesses, Output expectedOutput) {
         boolean passed = true;
         System.out.println("     Validating Results for: " + testName);
 
@@ -83,7 +86,35 @@ public class Main {
         return passed;
     }
 
-    public static void printStats(ArrayList<Process> processes) {
+    // jobs, misses, worst lateness and the schedulability verdict of a real-time run
+    public static boolean validateDeadlines(String testName, DeadlineStats actual, Output expectedOutput) {
+        if (actual == null) {
+            System.out.println("          " + testName + " reported no deadline results!");
+            return false;
+        }
+        boolean passed = true;
+        if (actual.getJobs() != expectedOutput.getJobs() || actual.getMisses() != expectedOutput.getDeadlineMisses()
+                || actual.getMaxLateness() != expectedOutput.getMaxLateness()) {
+            System.out.println("          Deadline Mismatch!");
+            System.out.println("         Expected -> Jobs: " + expectedOutput.getJobs() + ", Misses: " + expectedOutput.getDeadlineMisses()
+                    + ", Max Lateness: " + expectedOutput.getMaxLateness());
+            System.out.println("         Actual   -> Jobs: " + actual.getJobs() + ", Misses: " + actual.getMisses()
+                    + ", Max Lateness: " + actual.getMaxLateness());
+            passed = false;
+        }
+        Schedulability verdict = actual.getSchedulability();
+        if (verdict == null || !verdict.getTest().equals(expectedOutput.getSchedulabilityTest())
+                || verdict.isSchedulable() != expectedOutput.isSchedulable()) {
+            System.out.println("          Schedulability Mismatch!");
+            System.out.println("         Expected: " + expectedOutput.getSchedulabilityTest() + ": "
+                    + (expectedOutput.isSchedulable() ? "schedulable" : "not schedulable"));
+            System.out.println("         Actual:   " + verdict);
+            passed = false;
+        }
+        return passed;
+    }
+
+    public static void printStats(List<Process> processes) {
         if (processes.isEmpty()) return;
 
         ArrayList<Process> sortedList = new ArrayList<>(processes);
@@ -113,160 +144,228 @@ public class Main {
         System.out.printf("   ➤ Average Turnaround Time : %.2f%n", avgTurnaround);
     }
 
+    // the figures the engine gathered during the run, beyond the per-process table
+    public static void printRunStats(RunStats stats) {
+        if (stats == null) return;
+        System.out.printf("   ➤ Average Response Time   : %.2f%n", stats.getAverageResponseTime());
+        System.out.printf("   ➤ Turnaround p95 / p99    : %.0f / %.0f%n",
+                stats.getTurnaroundPercentile(0.95), stats.getTurnaroundPercentile(0.99));
+        System.out.printf("   ➤ Throughput              : %.4f processes per time unit%n", stats.getThroughput());
+        System.out.printf("   ➤ CPU Utilization         : %.1f%%%n", stats.getUtilization() * 100);
+        System.out.printf("   ➤ Fairness (Jain's index) : %.3f%n", stats.getFairnessIndex());
+    }
+
     // =============================================================
-    // Scheduler Specific Runners
+    // Scheduler Runner
     // =============================================================
 
-    public static void runSJF(List<String> fileNames) {
-        System.out.println("\n>>> Running Scheduler: SJF <<<");
-        int sjfPassed = 0;
+    // agFormat selects the AG JSON layout (per-process quantum, flat expectedOutput)
+    public static void runScheduler(String engineName, String title, List<String> fileNames, boolean agFormat) {
+        System.out.println("\n>>> Running Scheduler: " + title + " <<<");
+        Scheduler scheduler = RESULTS.scheduler(engineName);
+        int passed = 0;
 
         for (String fileName : fileNames) {
             System.out.println("\n Processing: " + fileName);
-            Input currentInput = new Input();
-            currentInput.ReadInput(fileName);
+            Input input = new Input();
+            if (agFormat) {
+                input.ReadAGInput(fileName);
+            } else {
+                input.ReadInput(fileName);
+            }
 
-            if (currentInput.getProcesses().isEmpty()) continue;
+            if (input.getProcesses().isEmpty()) continue;
 
             Output expectedOutput = new Output();
-            expectedOutput.ReadOutput(fileName, "SJF");
-
-            SJFScheduler sjf = new SJFScheduler();
-            sjf.schedule(currentInput.getProcesses(), currentInput.getContextSwitch());
+            if (agFormat) {
+                expectedOutput.ReadAGOutput(fileName);
+            } else {
+                expectedOutput.ReadOutput(fileName, engineName);
+            }
 
-            ArrayList<String> sjfOrder = sjf.getExecutionOrder();
+            ScheduleResult result = scheduler.run(Workload.from(input));
 
-            boolean isSuccess = validateResults("SJF", sjfOrder, currentInput.getProcesses(), expectedOutput);
+            boolean isSuccess = validateResults(engineName, result.getExecutionOrder(), result.getProcesses(), expectedOutput);
+            if (expectedOutput.hasDeadlineResults()) {
+                isSuccess &= validateDeadlines(engineName, result.getDeadlines(), expectedOutput);
+            }
 
             if (isSuccess) {
-                System.out.println("     RESULT:  PASS");
-                sjfPassed++;
+                System.out.println("    RESULT:  PASS");
+                passed++;
             } else {
                 System.out.println("     RESULT:  FAIL");
             }
 
-            printExecutionSequence(sjfOrder);
+            printExecutionSequence(result.getExecutionOrder());
 
-            printStats(currentInput.getProcesses());
+            printStats(result.getProcesses());
+            printRunStats(result.getStats());
+            if (result.getDeadlines() != null) {
+                System.out.println("   ➤ Deadlines               : " + result.getDeadlines());
+            }
             System.out.println("-------------------------------------------------");
         }
-        System.out.println("🏁 SJF Summary: " + sjfPassed + "/" + fileNames.size() + " Passed.");
+        System.out.println("🏁 " + engineName + " Summary: " + passed + "/" + fileNames.size() + " Passed.");
+    }
+
+    public static void runSJF(List<String> fileNames) {
+        runScheduler("SJF", "SJF", fileNames, false);
     }
 
     public static void runRR(List<String> fileNames) {
-        System.out.println("\n>>> Running Scheduler: RR (Round Robin) <<<");
-        int rrPassed = 0;
+        runScheduler("RR", "RR (Round Robin)", fileNames, false);
+    }
+
+    public static void runPriority(List<String> fileNames) {
+        runScheduler("Priority", "Priority (Preemptive + Aging)", fileNames, false);
+    }
+
+    public static void runAG(List<String> fileNames) {
+        runScheduler("AG", "AG Scheduling", fileNames, true);
+    }
+
+    public static void runMLFQ(List<String> fileNames) {
+        runScheduler("MLFQ", "MLFQ (Multi-Level Feedback Queue)", fileNames, false);
+    }
+
+    public static void runCFS(List<String> fileNames) {
+        runScheduler("CFS", "CFS (Completely Fair)", fileNames, false);
+    }
+
+    public static void runRealTime(List<String> fileNames) {
+        runScheduler("EDF", "EDF (Earliest Deadline First)", fileNames, false);
+        runScheduler("RM", "RM (Rate Monotonic)", fileNames, false);
+    }
+
+    // Online mode with each process submitted as the clock reaches its arrival, then drained: it
+    // must match the batch engine's expected output for the same files.
+    public static void runOnline(String engineName, List<String> fileNames, boolean agFormat) {
+        System.out.println("\n>>> Running Scheduler: Online " + engineName + " <<<");
+        int passed = 0;
 
         for (String fileName : fileNames) {
             System.out.println("\n Processing: " + fileName);
-            Input rrInput = new Input();
-            rrInput.ReadInput(fileName);
-            if (rrInput.getProcesses().isEmpty()) continue;
+            // the file goes straight into the engine, with no process list in between
+            OnlineScheduler scheduler = OnlineScheduler.fromFile(engineName, fileName, agFormat);
+            if (scheduler == null || scheduler.getFinishedProcesses().isEmpty()) continue;
+            List<Process> processes = scheduler.getFinishedProcesses();
 
             Output expectedOutput = new Output();
-            expectedOutput.ReadOutput(fileName, "RR");
-
-            RRScheduler rr = new RRScheduler(rrInput.getProcesses(), rrInput.getRrQuantum(), rrInput.getContextSwitch());
-            rr.simulate();
-
-            Vector<String> rrOrder = rr.getExecutionOrder();
+            if (agFormat) {
+                expectedOutput.ReadAGOutput(fileName);
+            } else {
+                expectedOutput.ReadOutput(fileName, engineName);
+            }
 
-            boolean isSuccess = validateResults("RR", rrOrder, rrInput.getProcesses(), expectedOutput);
+            boolean isSuccess = validateResults("Online " + engineName, scheduler.getExecutionOrder(), processes, expectedOutput);
 
             if (isSuccess) {
-                System.out.println("    RESULT: PASS");
-                rrPassed++;
+                System.out.println("    RESULT:  PASS");
+                passed++;
             } else {
                 System.out.println("     RESULT:  FAIL");
             }
 
-            printExecutionSequence(rrOrder);
+            printExecutionSequence(scheduler.getExecutionOrder());
 
-            printStats(rrInput.getProcesses());
+            printStats(processes);
             System.out.println("-------------------------------------------------");
         }
-        System.out.println("🏁 RR Summary: " + rrPassed + "/" + fileNames.size() + " Passed.");
+        System.out.println("🏁 Online " + engineName + " Summary: " + passed + "/" + fileNames.size() + " Passed.");
     }
 
-    public static void runPriority(List<String> fileNames) {
-        System.out.println("\n>>> Running Scheduler: Priority (Preemptive + Aging) <<<");
-        int priorityPassed = 0;
+    // CPU and I/O runs: the CPU bursts go through the online engine and the io requests through
+    // each device's blocked queue.
+    public static void runIO(String engineName, List<String> fileNames) {
+        System.out.println("\n>>> Running Scheduler: I/O " + engineName + " <<<");
+        int passed = 0;
 
         for (String fileName : fileNames) {
             System.out.println("\n Processing: " + fileName);
-            Input priorityInput = new Input();
-            priorityInput.ReadInput(fileName);
+            Input input = new Input();
+            input.ReadInput(fileName);
 
-            if (priorityInput.getProcesses().isEmpty()) continue;
+            if (input.getProcesses().isEmpty()) continue;
 
             Output expectedOutput = new Output();
-            expectedOutput.ReadOutput(fileName, "Priority");
-
-            PriorityScheduler priority = new PriorityScheduler(
-                    priorityInput.getProcesses(),
-                    priorityInput.getContextSwitch(),
-                    priorityInput.getAgingInterval()
-            );
+            expectedOutput.ReadOutput(fileName, engineName);
 
-            priority.simulate();
+            IoSimulator.Result result = new IoSimulator(engineName).run(Workload.from(input));
 
-            Vector<String> priorityOrder = priority.getExecutionOrder();
-
-            boolean isSuccess = validateResults("Priority", priorityOrder, priorityInput.getProcesses(), expectedOutput);
+            boolean isSuccess = validateResults("I/O " + engineName, result.executionOrder, result.processes, expectedOutput);
 
             if (isSuccess) {
                 System.out.println("    RESULT:  PASS");
-                priorityPassed++;
+                passed++;
             } else {
                 System.out.println("     RESULT:  FAIL");
             }
 
-            printExecutionSequence(priorityOrder);
+            printExecutionSequence(result.executionOrder);
 
-            printStats(priorityInput.getProcesses());
+            printStats(result.processes);
             System.out.println("-------------------------------------------------");
         }
-        System.out.println("🏁 Priority Summary: " + priorityPassed + "/" + fileNames.size() + " Passed.");
+        System.out.println("🏁 I/O " + engineName + " Summary: " + passed + "/" + fileNames.size() + " Passed.");
     }
 
-    public static void runAG(List<String> fileNames) {
-        System.out.println("\n>>> Running Scheduler: AG Scheduling <<<");
-        int agPassed = 0;
+    public static void runIO(List<String> fileNames) {
+        runIO("SJF", fileNames);
+        runIO("RR", fileNames);
+        runIO("Priority", fileNames);
+    }
+
+    // Multi-core runs on each file's cores and partitions. The sequential run and the one with a
+    // thread per partition must both match the expected output.
+    public static void runSMP(String engineName, List<String> fileNames) {
+        System.out.println("\n>>> Running Scheduler: SMP " + engineName + " <<<");
+        int passed = 0;
 
         for (String fileName : fileNames) {
             System.out.println("\n Processing: " + fileName);
-            Input agInput = new Input();
-            agInput.ReadAGInput(fileName);
+            Input input = new Input();
+            input.ReadInput(fileName);
 
-            if (agInput.getProcesses().isEmpty()) continue;
+            if (input.getProcesses().isEmpty()) continue;
 
             Output expectedOutput = new Output();
-            expectedOutput.ReadAGOutput(fileName);
-
-            AGScheduler ag = new AGScheduler();
-            Process[] processesArray = agInput.getProcesses().toArray(new Process[0]);
-
-            ag.StartSimulation(processesArray);
+            expectedOutput.ReadOutput(fileName, engineName);
 
-            ArrayList<Process> agFinished = new ArrayList<>(ag.getFinishedProcesses());
+            Workload workload = Workload.from(input);
+            SmpSimulator simulator = new SmpSimulator(engineName, input.getCores()).withPartitions(input.getPartitions());
+            SmpSimulator.Result result = simulator.run(workload);
+            SmpSimulator.Result parallel = simulator.runParallel(workload, input.getPartitions());
 
-            List<String> agOrder = ag.getExecutionOrder();
-
-            boolean isSuccess = validateResults("AG", agOrder, agFinished, expectedOutput);
+            boolean isSuccess = validateResults("SMP " + engineName, result.getExecutionOrder(), result.processes, expectedOutput);
+            isSuccess &= validateResults("SMP " + engineName + " (parallel)", parallel.getExecutionOrder(), parallel.processes, expectedOutput);
 
             if (isSuccess) {
                 System.out.println("    RESULT:  PASS");
-                agPassed++;
+                passed++;
             } else {
                 System.out.println("     RESULT:  FAIL");
             }
 
-            printExecutionSequence(agOrder);
+            printExecutionSequence(result.getExecutionOrder());
 
-            printStats(agFinished);
+            printStats(result.processes);
             System.out.println("-------------------------------------------------");
         }
-        System.out.println("🏁 AG Summary: " + agPassed + "/" + fileNames.size() + " Passed.");
+        System.out.println("🏁 SMP " + engineName + " Summary: " + passed + "/" + fileNames.size() + " Passed.");
+    }
+
+    public static void runOnline(List<String> fileNames, List<String> agFileNames) {
+        runOnline("SJF", fileNames, false);
+        runOnline("RR", fileNames, false);
+        runOnline("Priority", fileNames, false);
+        runOnline("AG", agFileNames, true);
+    }
+
+    public static void runSMP(List<String> fileNames) {
+        runSMP("SJF", fileNames);
+        runSMP("RR", fileNames);
+        runSMP("Priority", fileNames);
     }
 
     // =============================================================
@@ -277,6 +376,10 @@ public class Main {
         Scanner scanner = new Scanner(System.in);
         List<String> TestFileNames = List.of("test_1.json", "test_2.json", "test_3.json", "test_4.json", "test_5.json", "test_6.json");
         List<String> AGTestFileNames = List.of("AG_test1.json", "AG_test2.json", "AG_test3.json", "AG_test4.json", "AG_test5.json", "AG_test6.json");
+        List<String> CFSTestFileNames = List.of("test_1.json", "test_2.json", "test_3.json", "test_4.json", "test_5.json", "test_6.json", "CFS_test1.json");
+        List<String> RTTestFileNames = List.of("RT_test1.json", "RT_test2.json");
+        List<String> IOTestFileNames = List.of("IO_test1.json");
+        List<String> SMPTestFileNames = List.of("SMP_test1.json", "SMP_test2.json", "SMP_test3.json");
 
         System.out.println("\n+-----------------------------------------------+");
         System.out.println("|           🕵️  OS SCHEDULER UNIT TESTS         |");
@@ -289,6 +392,12 @@ public class Main {
             System.out.println("3. Priority (Preemptive)");
             System.out.println("4. AG Scheduling");
             System.out.println("5. Run ALL Tests");
+            System.out.println("6. SMP (multi-core, partitioned)");
+            System.out.println("7. Online mode (SJF, RR, Priority, AG)");
+            System.out.println("8. MLFQ (Multi-Level Feedback Queue)");
+            System.out.println("9. CFS (Completely Fair)");
+            System.out.println("10. EDF and RM (Real-Time)");
+            System.out.println("11. CPU and I/O (SJF, RR, Priority)");
             System.out.println("0. Exit");
             System.out.print("Enter choice: ");
 
@@ -319,13 +428,37 @@ public class Main {
                     runRR(TestFileNames);
                     runPriority(TestFileNames);
                     runAG(AGTestFileNames);
+                    runSMP(SMPTestFileNames);
+                    runOnline(TestFileNames, AGTestFileNames);
+                    runMLFQ(TestFileNames);
+                    runCFS(CFSTestFileNames);
+                    runRealTime(RTTestFileNames);
+                    runIO(IOTestFileNames);
+                    break;
+                case 6:
+                    runSMP(SMPTestFileNames);
+                    break;
+                case 7:
+                    runOnline(TestFileNames, AGTestFileNames);
+                    break;
+                case 8:
+                    runMLFQ(TestFileNames);
+                    break;
+                case 9:
+                    runCFS(CFSTestFileNames);
+                    break;
+                case 10:
+                    runRealTime(RTTestFileNames);
+                    break;
+                case 11:
+                    runIO(IOTestFileNames);
                     break;
                 case 0:
                     System.out.println("Exiting...");
                     scanner.close();
                     return;
                 default:
-                    System.out.println("Invalid choice! Please select 0-5.");
+                    System.out.println("Invalid choice! Please select 0-11.");
             }
         }
     }
@@ -0,0 +1,721 @@
+import java.util.*;
+
+// Online mode for the scheduling engines: processes are submitted as they arrive and the clock is
+// advanced step by step, instead of handing the whole workload to a batch run.
+//
+//   OnlineScheduler s = OnlineScheduler.create("SJF", contextSwitch, rrQuantum, agingInterval);
+//   s.submit(p);          // arrivals at or before t must be submitted before advanceTo(t)
+//   s.nextDecision();     // what the CPU does from the current clock, given what is known now
+//   s.advanceTo(t);       // simulates up to t, stopping mid-slice or mid-switch when needed
+//
+// Each engine is its batch loop turned into a resumable state machine: the state is the ready
+// structure plus the one decision in flight, so every event costs what it costs in the batch engine
+// and nothing is replayed. Fed the whole workload and drained, each engine gives the same metrics
+// and timeline as its batch counterpart. Submitted processes are scheduled in place.
+// A process submitted after the clock has passed its arrival is admitted at the next decision point;
+// several such late submissions are admitted in submission order. Pending submissions wait on a
+// TimingWheel, so an engine fed millions of arrivals spread over a long horizon pays O(1) for each.
+public abstract class OnlineScheduler {
+
+    // What the CPU is doing from `from`: running or switching to a process, or idle.
+    // `until` is when the engine next re-evaluates given what it knows now (a later submission
+    // can bring it forward); it is -1 when the CPU is idle with nothing submitted.
+    public static final class Decision {
+        public final byte kind;
+        public final String process;
+        public final int from;
+        public final int until;
+
+        Decision(byte kind, String process, int from, int until) {
+            this.kind = kind;
+            this.process = process;
+            this.from = from;
+            this.until = until;
+        }
+
+        @Override
+        public String toString() {
+            String type = kind == Timeline.RUN ? "run" : kind == Timeline.SWITCH ? "switch" : "idle";
+            return type + (process == null ? "" : " " + process) + " [" + from + ", " + (until < 0 ? "?" : until) + ")";
+        }
+    }
+
+    // ids of submitted processes not yet handed to the engine, due at their arrival; equal arrivals
+    // come out in submission order
+    private final TimingWheel pending = new TimingWheel();
+    // ids are submission positions, used for the timeline and tie-breaks
+    private final List<Process> submitted = new ArrayList<>();
+    private final Map<Process, Integer> ids = new IdentityHashMap<>();
+    private final List<Process> finished = new ArrayList<>();
+    private final boolean collapseRepeats;
+
+    final Timeline timeline = new Timeline(i -> submitted.get(i).getName());
+    final int contextSwitch;
+    int clock;
+
+    OnlineScheduler(int contextSwitch, boolean collapseRepeats) {
+        this.contextSwitch = contextSwitch;
+        this.collapseRepeats = collapseRepeats;
+    }
+
+    public static OnlineScheduler create(String engine, int contextSwitch, int rrQuantum, int agingInterval) {
+        return switch (engine) {
+            case "SJF" -> new SJF(contextSwitch);
+            case "RR" -> new RR(contextSwitch, rrQuantum);
+            case "Priority" -> new Priority(contextSwitch, agingInterval);
+            case "AG" -> new AG();
+            default -> throw new IllegalArgumentException("Unknown online scheduler: " + engine);
+        };
+    }
+
+    // Runs a test file through the engine while it is parsed: the engine is made from the file's
+    // header, each process is submitted as soon as it is read, with the clock brought up to just
+    // before its arrival, and the engine is drained at the end. No process list or JSON tree is built
+    // on the way, so memory is only what the engine itself keeps. The file must list its processes
+    // in arrival order. Returns null if the file cannot be read.
+    public static OnlineScheduler fromFile(String engine, String filename, boolean agFormat) {
+        Input input = new Input();
+        OnlineScheduler[] scheduler = new OnlineScheduler[1];
+        int[] lastArrival = {Integer.MIN_VALUE};
+        boolean read = input.StreamInput(filename, agFormat, p -> {
+            if (p.getArrivalTime() < lastArrival[0]) {
+                throw new IllegalArgumentException(p.getName() + " arrives at " + p.getArrivalTime()
+                        + ", before a process listed ahead of it in " + filename);
+            }
+            lastArrival[0] = p.getArrivalTime();
+            if (scheduler[0] == null) {
+                scheduler[0] = create(engine, input.getContextSwitch(), input.getRrQuantum(), input.getAgingInterval());
+            }
+            if (p.getArrivalTime() > scheduler[0].getTime()) scheduler[0].advanceTo(p.getArrivalTime() - 1);
+            scheduler[0].submit(p);
+        });
+        if (!read) return null;
+        if (scheduler[0] == null) {
+            scheduler[0] = create(engine, input.getContextSwitch(), input.getRrQuantum(), input.getAgingInterval());
+        }
+        scheduler[0].drain();
+        return scheduler[0];
+    }
+
+    public void submit(Process p) {
+        if (ids.containsKey(p)) {
+            throw new IllegalArgumentException("Process already submitted: " + p.getName());
+        }
+        int id = submitted.size();
+        submitted.add(p);
+        ids.put(p, id);
+        onSubmit(p, id);
+        enqueue(id, p.getArrivalTime());
+    }
+
+    // an arrival the wheel has already passed is due at once, so it is admitted at the next decision point
+    private void enqueue(int id, int arrival) {
+        pending.schedule(Math.max(arrival, pending.now()), id);
+    }
+
+    public void advanceTo(int time) {
+        if (time < clock) {
+            throw new IllegalArgumentException("Cannot go back from " + clock + " to " + time);
+        }
+        while (clock < time) {
+            if (!inFlight() && !decide()) {
+                int next = Math.min(time, nextArrivalTime());
+                timeline.idle(clock, next);
+                clock = next;
+                continue;
+            }
+            execute(time);
+        }
+    }
+
+    // runs until every submitted process has finished
+    public void drain() {
+        while (true) {
+            if (!inFlight() && !decide()) {
+                if (pending.isEmpty()) return;
+                timeline.idle(clock, (int) pending.nextTime());
+                clock = (int) pending.nextTime();
+                continue;
+            }
+            execute(Integer.MAX_VALUE);
+        }
+    }
+
+    // commits the decision at the current clock if none is in flight, so callers see it right away
+    public Decision nextDecision() {
+        if (!inFlight() && !decide()) {
+            return new Decision(Timeline.IDLE, null, clock, pending.isEmpty() ? -1 : (int) pending.nextTime());
+        }
+        return current();
+    }
+
+    public int getTime() {
+        return clock;
+    }
+
+    // in completion order
+    public List<Process> getFinishedProcesses() {
+        return Collections.unmodifiableList(finished);
+    }
+
+    public List<String> getExecutionOrder() {
+        return timeline.executionOrder(collapseRepeats);
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    // hands every submitted process that has arrived by now to the engine
+    void admitArrivals() {
+        while (pending.nextTime() <= clock) {
+            onArrival(pending.poll());
+        }
+    }
+
+    // earliest time after now at which a submitted process arrives
+    int nextArrivalTime() {
+        return pending.isEmpty() ? Integer.MAX_VALUE : Math.max((int) pending.nextTime(), clock + 1);
+    }
+
+    Process process(int id) {
+        return submitted.get(id);
+    }
+
+    int id(Process p) {
+        return ids.get(p);
+    }
+
+    void finish(Process p) {
+        p.setTurnaroundTime(clock - p.getArrivalTime());
+        p.setWaitingTime(p.getTurnaroundTime() - p.getBurstTime());
+        finished.add(p);
+    }
+
+    // Migration, used by SmpSimulator: takeWaiting() removes the ready process this engine would
+    // dispatch next (never the one in flight) and adopt() makes a process ready here at readyAt.
+    // The engine state a process carries (remaining time, AG quantum, aged priority) moves with it.
+    Process takeWaiting() {
+        int id = takeWaitingId();
+        return id < 0 ? null : submitted.get(id);
+    }
+
+    void adopt(Process p, int readyAt) {
+        Integer id = ids.get(p);
+        boolean first = id == null;
+        if (first) {
+            id = submitted.size();
+            submitted.add(p);
+            ids.put(p, id);
+        }
+        onAdopt(p, id, first, readyAt);
+        enqueue(id, readyAt);
+    }
+
+    // processes queued here, running or not yet arrived
+    int load() {
+        return waitingCount() + pending.size() + (inFlight() ? 1 : 0);
+    }
+
+    void onSubmit(Process p, int id) {}
+
+    void onAdopt(Process p, int id, boolean first, int readyAt) {}
+
+    // ready processes other than the one in flight
+    abstract int waitingCount();
+
+    abstract int takeWaitingId();
+
+    abstract void onArrival(int id);
+
+    // admits arrivals and commits the next decision; false when nothing is ready to run
+    abstract boolean decide();
+
+    abstract boolean inFlight();
+
+    // carries the decision in flight forward, never past limit
+    abstract void execute(int limit);
+
+    abstract Decision current();
+
+    // Preemptive SJF, as SJFScheduler: after a switch the process gets one unit, otherwise it runs
+    // until it finishes or the next arrival.
+    static final class SJF extends OnlineScheduler {
+        private final PriorityQueue<Process> ready = new PriorityQueue<>(
+                Comparator.comparingInt(Process::getRemainingTime)
+                        .thenComparingInt(Process::getArrivalTime)
+                        .thenComparing(Process::getName)
+                        .thenComparingInt(this::id));
+        // the chosen process, out of the heap while it is switched in or running
+        private Process running;
+        private Process last;
+        private int switchStart;
+        private int switchEnd = -1;
+        private boolean oneUnit;
+
+        SJF(int contextSwitch) {
+            super(contextSwitch, true);
+        }
+
+        @Override
+        void onArrival(int id) {
+            ready.add(process(id));
+        }
+
+        @Override
+        boolean inFlight() {
+            return running != null;
+        }
+
+        @Override
+        int waitingCount() {
+            return ready.size();
+        }
+
+        @Override
+        int takeWaitingId() {
+            return ready.isEmpty() ? -1 : id(ready.poll());
+        }
+
+        @Override
+        boolean decide() {
+            admitArrivals();
+            if (ready.isEmpty()) return false;
+            running = ready.poll();
+            if (last != null && running != last) {
+                switchStart = clock;
+                switchEnd = clock + contextSwitch;
+                timeline.contextSwitch(id(running), switchStart, switchEnd);
+            }
+            return true;
+        }
+
+        private int runTime() {
+            return oneUnit ? 1 : Math.min(running.getRemainingTime(), nextArrivalTime() - clock);
+        }
+
+        @Override
+        void execute(int limit) {
+            if (switchEnd >= 0) {
+                clock = Math.min(switchEnd, limit);
+                if (clock < switchEnd) return;
+                switchEnd = -1;
+                admitArrivals();
+                oneUnit = true;
+                return;
+            }
+
+            // a cut at limit hands the process back; the next decision picks it again
+            int to = Math.min(clock + runTime(), limit);
+            timeline.run(id(running), clock, to);
+            running.setRemainingTime(running.getRemainingTime() - (to - clock));
+            clock = to;
+            last = running;
+            if (running.getRemainingTime() == 0) {
+                finish(running);
+            } else {
+                ready.add(running);
+            }
+            running = null;
+            oneUnit = false;
+        }
+
+        @Override
+        Decision current() {
+            if (switchEnd >= 0) return new Decision(Timeline.SWITCH, running.getName(), switchStart, switchEnd);
+            return new Decision(Timeline.RUN, running.getName(), clock, clock + runTime());
+        }
+    }
+
+    // Round Robin, as RRScheduler: slices are not preemptible, arrivals during a slice queue ahead
+    // of the preempted process, and every slice is followed by a context switch.
+    static final class RR extends OnlineScheduler {
+        private final ArrayDeque<Process> ready = new ArrayDeque<>();
+        private final int quantum;
+        private Process running;
+        private int sliceStart;
+        private int sliceEnd;
+        private int switchStart;
+        private int switchEnd = -1;
+
+        RR(int contextSwitch, int quantum) {
+            super(contextSwitch, false);
+            this.quantum = quantum;
+        }
+
+        @Override
+        void onArrival(int id) {
+            ready.add(process(id));
+        }
+
+        @Override
+        boolean inFlight() {
+            return running != null || switchEnd >= 0;
+        }
+
+        @Override
+        int waitingCount() {
+            return ready.size();
+        }
+
+        @Override
+        int takeWaitingId() {
+            return ready.isEmpty() ? -1 : id(ready.poll());
+        }
+
+        @Override
+        boolean decide() {
+            admitArrivals();
+            if (ready.isEmpty()) return false;
+            running = ready.poll();
+            sliceStart = clock;
+            sliceEnd = clock + Math.min(running.getRemainingTime(), quantum);
+            return true;
+        }
+
+        @Override
+        void execute(int limit) {
+            if (switchEnd >= 0) {
+                clock = Math.min(switchEnd, limit);
+                if (clock < switchEnd) return;
+                timeline.contextSwitch(-1, switchStart, switchEnd);
+                switchEnd = -1;
+                return;
+            }
+
+            int to = Math.min(sliceEnd, limit);
+            running.setRemainingTime(running.getRemainingTime() - (to - clock));
+            clock = to;
+            if (clock < sliceEnd) return;
+
+            admitArrivals();
+            timeline.dispatch(id(running), sliceStart, sliceEnd);
+            if (running.getRemainingTime() > 0) {
+                ready.add(running);
+            } else {
+                finish(running);
+            }
+            running = null;
+            if (contextSwitch > 0) {
+                switchStart = clock;
+                switchEnd = clock + contextSwitch;
+            }
+        }
+
+        @Override
+        Decision current() {
+            if (running == null) return new Decision(Timeline.SWITCH, null, switchStart, switchEnd);
+            return new Decision(Timeline.RUN, running.getName(), sliceStart, sliceEnd);
+        }
+    }
+
+    // Preemptive priority with aging, driving PriorityScheduler's ready set and aging calendar.
+    // A switch re-evaluates at its end and may be followed by a second switch, as in the batch engine.
+    static final class Priority extends OnlineScheduler {
+        private static final int FIRST_SWITCH = 1, SECOND_SWITCH = 2, RUN = 3;
+
+        // task indices in core are submission ids
+        private final PriorityScheduler core;
+        private String activeName;
+        private int active = -1;
+        private int target = -1;
+        private int stage;
+        private int stageStart;
+        private int stageEnd;
+        private boolean oneUnit;
+
+        Priority(int contextSwitch, int agingInterval) {
+            super(contextSwitch, true);
+            this.core = new PriorityScheduler(new ArrayList<>(), contextSwitch, agingInterval);
+        }
+
+        @Override
+        void onSubmit(Process p, int id) {
+            // the engine ages its own copy, so the caller's priority is left alone
+            Process task = p.copy();
+            task.lastActivityTime = p.getArrivalTime();
+            core.addTask(task);
+        }
+
+        @Override
+        void onAdopt(Process p, int id, boolean first, int readyAt) {
+            Process task = first ? p.copy() : core.task(id);
+            task.setPriority(p.getPriority());
+            task.setRemainingTime(p.getRemainingTime());
+            task.lastActivityTime = readyAt;
+            if (first) core.addTask(task);
+        }
+
+        @Override
+        void onArrival(int id) {
+            core.makeReady(id);
+        }
+
+        @Override
+        boolean inFlight() {
+            return stage != 0;
+        }
+
+        @Override
+        int waitingCount() {
+            return core.readyTaskCount() - (stage != 0 ? 1 : 0);
+        }
+
+        // the caller's process leaves with the aged priority and remaining time of the engine copy
+        @Override
+        int takeWaitingId() {
+            int id = core.takeReadyTask(stage != 0 ? target : -1);
+            if (id < 0) return -1;
+            if (id == active) active = -1;
+            Process task = core.task(id);
+            Process original = process(id);
+            original.setPriority(task.getPriority());
+            original.setRemainingTime(task.getRemainingTime());
+            return id;
+        }
+
+        @Override
+        boolean decide() {
+            admitArrivals();
+            if (!core.hasReadyTasks()) return false;
+
+            core.applyAgingPolicy(clock);
+            target = core.bestReadyTask();
+            if (activeName != null && !activeName.equals(core.task(target).getName())) {
+                // the preempted task starts waiting, and aging, from now
+                if (active != -1 && core.task(active).getRemainingTime() > 0) {
+                    core.scheduleAging(active);
+                }
+                timeline.contextSwitch(target, clock, clock + contextSwitch);
+                core.markActivity(target, clock);
+                stage = FIRST_SWITCH;
+                stageStart = clock;
+                stageEnd = clock + contextSwitch;
+            } else {
+                startRun(false);
+            }
+            return true;
+        }
+
+        private void startRun(boolean afterSwitch) {
+            core.startRunning(target);
+            stage = RUN;
+            oneUnit = afterSwitch;
+        }
+
+        private int runTime() {
+            if (oneUnit) return 1;
+            int nextEvent = Math.min(nextArrivalTime(), core.nextAgingDeadline());
+            return Math.min(core.task(target).getRemainingTime(), nextEvent - clock);
+        }
+
+        @Override
+        void execute(int limit) {
+            if (stage == FIRST_SWITCH) {
+                clock = Math.min(stageEnd, limit);
+                if (clock < stageEnd) return;
+                admitArrivals();
+                core.applyAgingPolicy(clock);
+                int reEvaluated = core.bestReadyTask();
+                if (reEvaluated != target) {
+                    core.markActivity(reEvaluated, clock);
+                    stage = SECOND_SWITCH;
+                    stageStart = clock;
+                    stageEnd = clock + contextSwitch;
+                } else {
+                    activeName = core.task(target).getName();
+                    startRun(true);
+                }
+                return;
+            }
+            if (stage == SECOND_SWITCH) {
+                clock = Math.min(stageEnd, limit);
+                if (clock < stageEnd) return;
+                admitArrivals();
+                core.applyAgingPolicy(clock);
+                target = core.bestReadyTask();
+                timeline.contextSwitch(target, stageStart, clock);
+                activeName = null;
+                startRun(true);
+                return;
+            }
+
+            // a cut at limit ends the run; the next decision picks the same task again
+            Process task = core.task(target);
+            int to = Math.min(clock + runTime(), limit);
+            timeline.run(target, clock, to);
+            task.setRemainingTime(task.getRemainingTime() - (to - clock));
+            clock = to;
+            task.lastActivityTime = clock;
+            activeName = task.getName();
+            active = target;
+            stage = 0;
+            oneUnit = false;
+
+            if (task.getRemainingTime() == 0) {
+                core.complete(target, clock);
+                Process original = process(target);
+                original.setWaitingTime(task.getWaitingTime());
+                original.setTurnaroundTime(task.getTurnaroundTime());
+                finish(original);
+            }
+        }
+
+        @Override
+        Decision current() {
+            String name = core.task(target).getName();
+            if (stage == RUN) return new Decision(Timeline.RUN, name, clock, clock + runTime());
+            return new Decision(Timeline.SWITCH, stage == FIRST_SWITCH ? name : null, stageStart, stageEnd);
+        }
+    }
+
+    // AG, driving AGScheduler's ready queue and quantum updates. Phases 1 and 2 are not preemptible;
+    // phase 3 runs in chunks up to the next arrival, checking for a shorter job between chunks.
+    static final class AG extends OnlineScheduler {
+        private final AGScheduler core = new AGScheduler();
+        private Process running;
+        private Process nextProcess;
+        private int phase;
+        private int q, q1, q2;
+        private int runtime;
+        private int dispatchStart;
+        private int phaseEnd;
+
+        AG() {
+            super(0, false);
+        }
+
+        @Override
+        void onSubmit(Process p, int id) {
+            p.addQuantumToHistory(p.getQuantumTime());
+        }
+
+        @Override
+        void onArrival(int id) {
+            core.addToReadyQueue(process(id));
+        }
+
+        @Override
+        boolean inFlight() {
+            return running != null;
+        }
+
+        @Override
+        int waitingCount() {
+            return core.readyCount();
+        }
+
+        // the process picked by a preemption is out of the queue but still this core's work
+        @Override
+        int load() {
+            return super.load() + (nextProcess != null ? 1 : 0);
+        }
+
+        @Override
+        int takeWaitingId() {
+            return core.hasReadyProcesses() ? id(core.pollReadyQueue()) : -1;
+        }
+
+        @Override
+        boolean decide() {
+            admitArrivals();
+            // a migration can empty the queue while the process picked by a preemption is still due
+            if (nextProcess == null && !core.hasReadyProcesses()) return false;
+
+            if (nextProcess != null) {
+                running = nextProcess;
+                nextProcess = null;
+            } else {
+                running = core.pollReadyQueue();
+            }
+            q = running.getQuantumTime();
+            q1 = (int) Math.ceil(0.25 * q);
+            q2 = (int) Math.ceil(0.25 * q);
+            runtime = 0;
+            dispatchStart = clock;
+            timeline.dispatch(id(running), clock, clock);
+            phase = 1;
+            phaseEnd = clock + Math.min(q1, running.getRemainingTime());
+            return true;
+        }
+
+        private int phaseEnd() {
+            if (phase != 3) return phaseEnd;
+            return clock + Math.min(Math.min(q - runtime, running.getRemainingTime()), nextArrivalTime() - clock);
+        }
+
+        @Override
+        void execute(int limit) {
+            int end = phaseEnd();
+            int to = Math.min(end, limit);
+            if (to > clock) {
+                running.setRemainingTime(running.getRemainingTime() - (to - clock));
+                timeline.run(id(running), clock, to);
+                runtime += to - clock;
+                clock = to;
+            }
+            if (clock < end) return;
+
+            admitArrivals();
+            if (phase == 1) {
+                if (running.getRemainingTime() == 0) {
+                    complete();
+                    return;
+                }
+                // phase 2 is checked once on entry: a better priority preempts now, or the phase runs to its end
+                if (runtime < q1 + q2) {
+                    Process higher = core.get_Best_Priority();
+                    if (higher != null && higher.getPriority() < running.getPriority()) {
+                        preempt(higher, 2);
+                        return;
+                    }
+                    phase = 2;
+                    phaseEnd = clock + Math.min(q1 + q2 - runtime, running.getRemainingTime());
+                    return;
+                }
+            }
+            enterPhase3();
+        }
+
+        private void enterPhase3() {
+            if (runtime < q && runtime >= q1 + q2 && running.getRemainingTime() > 0) {
+                Process shortest = core.getShortestJob();
+                if (shortest != null && shortest.getRemainingTime() < running.getRemainingTime()) {
+                    preempt(shortest, 3);
+                    return;
+                }
+                phase = 3;
+                return;
+            }
+
+            if (running.getRemainingTime() == 0) {
+                complete();
+                return;
+            }
+            if (runtime == q) {
+                core.updateQuantum(running, runtime, 1);
+                core.addToReadyQueue(running);
+            }
+            running = null;
+        }
+
+        private void preempt(Process next, int scenario) {
+            core.updateQuantum(running, runtime, scenario);
+            core.addToReadyQueue(running);
+            core.removeFromReadyQueue(next);
+            nextProcess = next;
+            running = null;
+        }
+
+        private void complete() {
+            core.updateQuantum(running, runtime, 4);
+            finish(running);
+            running = null;
+        }
+
+        @Override
+        Decision current() {
+            return new Decision(Timeline.RUN, running.getName(), dispatchStart, phaseEnd());
+        }
+    }
+}
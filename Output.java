@@ -2,108 +2,6 @@ import java.util.*;
 import java.io.*;
 import com.google.gson.*;
 
-class Input {
-    private ArrayList<Process> processes = new ArrayList<>();
-    private String name;
-    private int contextSwitch;
-    private int rrQuantum;
-    private int agingInterval;
-
-    public Input ReadInput(String filename) {
-        try {
-            Gson gson = new Gson();
-            FileReader reader = new FileReader(filename);
-            JsonObject root = gson.fromJson(reader, JsonObject.class);
-            this.name = root.get("name").getAsString();
-            JsonObject inputObj = root.get("input").getAsJsonObject();
-            this.rrQuantum = inputObj.get("rrQuantum").getAsInt();
-            this.contextSwitch = inputObj.get("contextSwitch").getAsInt();
-            this.agingInterval = inputObj.get("agingInterval").getAsInt();
-            JsonArray processesArray = inputObj.get("processes").getAsJsonArray();
-            this.processes.clear();
-
-            for (JsonElement element : processesArray) {
-                JsonObject p = element.getAsJsonObject();
-                String pName = p.get("name").getAsString();
-                int pArrival = p.get("arrival").getAsInt();
-                int pBurst = p.get("burst").getAsInt();
-                int pPriority = p.get("priority").getAsInt();
-                processes.add(new Process(pName, pArrival, pBurst, pPriority, this.rrQuantum));
-            }
-
-            reader.close();
-
-        } catch (FileNotFoundException e) {
-            System.out.println("Error: File not found! Check the path: " + filename);
-        } catch (Exception e) {
-            System.out.println("Error reading JSON: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return this;
-    }
-
-    public Input ReadAGInput(String filename) {
-        try {
-            Gson gson = new Gson();
-            FileReader reader = new FileReader(filename);
-            JsonObject root = gson.fromJson(reader, JsonObject.class);
-            JsonObject inputObj = root.get("input").getAsJsonObject();
-            JsonArray processesArray = inputObj.get("processes").getAsJsonArray();
-            this.processes.clear();
-
-            for (JsonElement element : processesArray) {
-                JsonObject p = element.getAsJsonObject();
-                String pName = p.get("name").getAsString();
-                int pArrival = p.get("arrival").getAsInt();
-                int pBurst = p.get("burst").getAsInt();
-                int pPriority = p.get("priority").getAsInt();
-                int pquantum = p.get("quantum").getAsInt();
-                processes.add(new Process(pName, pArrival, pBurst, pPriority, pquantum));
-            }
-
-            reader.close();
-
-        } catch (FileNotFoundException e) {
-            System.out.println("Error: File not found! Check the path: " + filename);
-        } catch (Exception e) {
-            System.out.println("Error reading JSON: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return this;
-    }
-
-    public ArrayList<Process> getProcesses() { return processes; }
-    public String getName() { return name; }
-    public int getContextSwitch() { return contextSwitch; }
-    public int getRrQuantum() { return rrQuantum; }
-    public int getAgingInterval() { return agingInterval; }
-}
-
-
-class outputprocess {
-    private String name;
-    private int waitingTime;
-    private int turnaroundTime;
-    private List<Integer> quantumHistory;
-
-    public outputprocess(String name, int waitingTime, int turnaroundTime, List<Integer> quantumHistory) {
-        this.name = name;
-        this.waitingTime = waitingTime;
-        this.turnaroundTime = turnaroundTime;
-        this.quantumHistory = quantumHistory;
-    }
-
-    public outputprocess(String name, int waitingTime, int turnaroundTime) {
-        this(name, waitingTime, turnaroundTime, new ArrayList<>());
-    }
-
-    public String getName() { return name; }
-    public int getWaitingTime() { return waitingTime; }
-    public int getTurnaroundTime() { return turnaroundTime; }
-    public List<Integer> get_Quantum_History() { return quantumHistory; }
-}
-
-
 class Output {
     private ArrayList<outputprocess> valid_processes = new ArrayList<>();
     private ArrayList<String> executionOrder = new ArrayList<>();
@@ -111,6 +9,14 @@ class Output {
     private double averageWaitingTime;
     private double averageTurnaroundTime;
 
+    // deadline outcome, only in the real-time engines' blocks
+    private boolean hasDeadlineResults;
+    private long jobs;
+    private long deadlineMisses;
+    private long maxLateness;
+    private String schedulabilityTest;
+    private boolean schedulable;
+
     public void ReadOutput(String filename, String Schedule_Name) {
         try {
             Gson gson = new Gson();
@@ -144,6 +50,15 @@ class Output {
             averageWaitingTime = ScheduleObject.get("averageWaitingTime").getAsDouble();
             averageTurnaroundTime = ScheduleObject.get("averageTurnaroundTime").getAsDouble();
 
+            hasDeadlineResults = ScheduleObject.has("deadlineMisses");
+            if (hasDeadlineResults) {
+                jobs = ScheduleObject.get("jobs").getAsLong();
+                deadlineMisses = ScheduleObject.get("deadlineMisses").getAsLong();
+                maxLateness = ScheduleObject.get("maxLateness").getAsLong();
+                schedulabilityTest = ScheduleObject.get("schedulabilityTest").getAsString();
+                schedulable = ScheduleObject.get("schedulable").getAsBoolean();
+            }
+
             reader.close();
 
         } catch (FileNotFoundException e) {
@@ -216,7 +131,10 @@ class Output {
     public ArrayList<String> getProcessesOrder() { return executionOrder; }
     public double getAverageWaitingTime() { return averageWaitingTime; }
     public double getAverageTurnaroundTime() { return averageTurnaroundTime; }
+    public boolean hasDeadlineResults() { return hasDeadlineResults; }
+    public long getJobs() { return jobs; }
+    public long getDeadlineMisses() { return deadlineMisses; }
+    public long getMaxLateness() { return maxLateness; }
+    public String getSchedulabilityTest() { return schedulabilityTest; }
+    public boolean isSchedulable() { return schedulable; }
 }
-
-
-
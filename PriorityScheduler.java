@@ -0,0 +1,319 @@
+import java.util.*;
+
+class PriorityScheduler {
+    private static final int NO_TIMER = -1;
+
+    private final List<Process> referenceList;
+    private final List<Process> taskPool;
+    private final int contextSwitchPenalty;
+    private final int agingInterval;
+    private final Timeline timeline;
+
+    // task indices ordered by arrival time, consumed by nextArrival
+    private final int[] arrivalOrder;
+    private int nextArrival;
+    // arrived, unfinished tasks ordered by (priority, arrival, name)
+    private final TreeSet<Integer> readyTasks;
+    // pending aging deadlines, one timer per waiting task whose payload is the task index
+    private final TimingWheel agingCalendar = new TimingWheel();
+    // each task's timer handle, NO_TIMER when it has none
+    private int[] agingTimer;
+    // tasks aged at lastAgingClock, so a repeated visit to the same clock ages them again
+    private final List<Integer> agedAtLastClock;
+    private int lastAgingClock;
+    private SchedulerMetrics metrics;
+    private final RunStats stats = new RunStats();
+
+    public PriorityScheduler(ArrayList<Process> processes, int penalty, int interval) {
+        this.referenceList = processes;
+        this.contextSwitchPenalty = penalty;
+        this.agingInterval = interval;
+        this.taskPool = new ArrayList<>();
+        this.timeline = new Timeline(i -> taskPool.get(i).getName());
+
+        this.agingTimer = new int[processes.size()];
+        Arrays.fill(agingTimer, NO_TIMER);
+        for (Process p : processes) {
+            Process task = new Process(p.getName(), p.getArrivalTime(), p.getBurstTime(), p.getPriority(), p.getQuantumTime());
+            task.lastActivityTime = p.getArrivalTime();
+            addTask(task);
+        }
+
+        int[] arrivals = new int[taskPool.size()];
+        for (int i = 0; i < arrivals.length; i++) arrivals[i] = taskPool.get(i).getArrivalTime();
+        this.arrivalOrder = TimingWheel.sortedIndices(arrivals, arrivals.length);
+
+        this.readyTasks = new TreeSet<>((a, b) -> compareTasks(taskPool.get(a), taskPool.get(b), a, b));
+        this.agedAtLastClock = new ArrayList<>();
+        this.lastAgingClock = -1;
+    }
+
+    void setMetrics(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void simulate() {
+        int clock = 0;
+        int completed = 0;
+        String currentActiveName = null;
+        int currentActive = -1;
+
+        while (completed < taskPool.size()) {
+            admitArrivals(clock);
+
+            // CPU is idle, jump straight to the next arrival
+            if (readyTasks.isEmpty()) {
+                timeline.idle(clock, taskPool.get(arrivalOrder[nextArrival]).getArrivalTime());
+                clock = taskPool.get(arrivalOrder[nextArrival]).getArrivalTime();
+                continue;
+            }
+
+            applyAgingPolicy(clock);
+
+            int target = readyTasks.first();
+            boolean switched = false;
+            if (metrics != null) metrics.decision(readyTasks.size());
+
+            if (currentActiveName != null && !currentActiveName.equals(taskPool.get(target).getName())) {
+                switched = true;
+                // the preempted task starts waiting, and aging, from now
+                if (currentActive != -1 && taskPool.get(currentActive).getRemainingTime() > 0) {
+                    scheduleAging(currentActive);
+                    if (metrics != null) {
+                        metrics.preempt(SchedulerMetrics.Preemption.HIGHER_PRIORITY, timeline, currentActive, clock);
+                    }
+                }
+
+                timeline.contextSwitch(target, clock, clock + contextSwitchPenalty);
+                markActivity(target, clock);
+                clock += contextSwitchPenalty;
+
+                admitArrivals(clock);
+                applyAgingPolicy(clock);
+                int reEvaluated = readyTasks.first();
+
+                if (reEvaluated != target) {
+                    markActivity(reEvaluated, clock);
+                    int switchStart = clock;
+                    clock += contextSwitchPenalty;
+
+                    admitArrivals(clock);
+                    applyAgingPolicy(clock);
+                    target = readyTasks.first();
+                    // the first target never ran; the order shows it, then whoever wins this second switch
+                    timeline.contextSwitch(target, switchStart, clock);
+                    currentActiveName = null;
+                } else {
+                    currentActiveName = taskPool.get(target).getName();
+                }
+            }
+
+            Process task = taskPool.get(target);
+
+            startRunning(target);
+            if (task.getRemainingTime() == task.getBurstTime()) {
+                stats.firstDispatch(task.getArrivalTime(), clock);
+            }
+
+            // after a switch the task gets one unit before the next re-evaluation;
+            // otherwise only an arrival or an aging deadline can preempt it
+            int runTime = 1;
+            if (!switched) {
+                runTime = Math.min(task.getRemainingTime(), nextEventTime() - clock);
+            }
+
+            timeline.run(target, clock, clock + runTime);
+            task.setRemainingTime(task.getRemainingTime() - runTime);
+            clock += runTime;
+            task.lastActivityTime = clock;
+            currentActiveName = task.getName();
+            currentActive = target;
+
+            if (task.getRemainingTime() == 0) {
+                completed++;
+                complete(target, clock);
+            }
+        }
+        syncOriginalData();
+    }
+
+    private void admitArrivals(int time) {
+        while (nextArrival < arrivalOrder.length && taskPool.get(arrivalOrder[nextArrival]).getArrivalTime() <= time) {
+            makeReady(arrivalOrder[nextArrival++]);
+        }
+    }
+
+    // The methods below are also driven step by step by OnlineScheduler.Priority, which adds tasks
+    // as they are submitted instead of taking the whole list up front.
+
+    // adds a task that has not arrived yet and returns its index
+    int addTask(Process task) {
+        int index = taskPool.size();
+        taskPool.add(task);
+        if (index == agingTimer.length) {
+            agingTimer = Arrays.copyOf(agingTimer, Math.max(4, index * 2));
+            Arrays.fill(agingTimer, index, agingTimer.length, NO_TIMER);
+        }
+        return index;
+    }
+
+    Process task(int index) {
+        return taskPool.get(index);
+    }
+
+    boolean hasReadyTasks() {
+        return !readyTasks.isEmpty();
+    }
+
+    int bestReadyTask() {
+        return readyTasks.first();
+    }
+
+    int readyTaskCount() {
+        return readyTasks.size();
+    }
+
+    // removes the best ready task other than exclude, and its pending aging; -1 if there is none
+    int takeReadyTask(int exclude) {
+        Integer index = readyTasks.isEmpty() ? null : readyTasks.first();
+        if (index != null && index == exclude) index = readyTasks.higher(index);
+        if (index == null) return -1;
+        readyTasks.remove(index);
+        cancelAging(index);
+        return index;
+    }
+
+    void makeReady(int index) {
+        readyTasks.add(index);
+        scheduleAging(index);
+    }
+
+    // a running task never ages, so its timer is cancelled
+    void startRunning(int index) {
+        cancelAging(index);
+    }
+
+    void complete(int index, int time) {
+        readyTasks.remove(index);
+        recordFinalMetrics(taskPool.get(index), time);
+    }
+
+    void markActivity(int index, int time) {
+        taskPool.get(index).lastActivityTime = time;
+        scheduleAging(index);
+    }
+
+    // arms the first aging deadline after lastActivityTime, replacing any earlier one; a deadline
+    // already past fires at the next applyAgingPolicy, which the wheel's current time stands for
+    void scheduleAging(int index) {
+        cancelAging(index);
+        if (agingInterval <= 0 || taskPool.get(index).getPriority() <= 1) return;
+        int due = taskPool.get(index).lastActivityTime + agingInterval;
+        agingTimer[index] = agingCalendar.schedule(Math.max(due, agingCalendar.now()), index);
+    }
+
+    private void cancelAging(int index) {
+        if (agingTimer[index] == NO_TIMER) return;
+        agingCalendar.cancel(agingTimer[index]);
+        agingTimer[index] = NO_TIMER;
+    }
+
+    // ages every waiting task whose idle time is a positive multiple of the interval at currentTime;
+    // deadlines that fell on clock values skipped by a context switch are not applied
+    void applyAgingPolicy(int currentTime) {
+        if (agingInterval <= 0) return;
+
+        if (currentTime == lastAgingClock) {
+            for (int index : agedAtLastClock) {
+                Process p = taskPool.get(index);
+                int idleTime = currentTime - p.lastActivityTime;
+                if (p.getRemainingTime() > 0 && idleTime != 0 && idleTime % agingInterval == 0) {
+                    decreasePriority(index);
+                }
+            }
+        } else {
+            agedAtLastClock.clear();
+            lastAgingClock = currentTime;
+        }
+
+        while (agingCalendar.nextTime() <= currentTime) {
+            int index = agingCalendar.poll();
+            agingTimer[index] = NO_TIMER;
+
+            Process p = taskPool.get(index);
+            int idleTime = currentTime - p.lastActivityTime;
+            if (idleTime % agingInterval == 0) {
+                decreasePriority(index);
+                agedAtLastClock.add(index);
+            }
+            if (p.getPriority() > 1) {
+                int due = p.lastActivityTime + (idleTime / agingInterval + 1) * agingInterval;
+                agingTimer[index] = agingCalendar.schedule(due, index);
+            }
+        }
+    }
+
+    private void decreasePriority(int index) {
+        Process p = taskPool.get(index);
+        // a task that has migrated away is no longer ready here and keeps its priority
+        if (p.getPriority() > 1 && readyTasks.remove(index)) {
+            p.setPriority(p.getPriority() - 1);
+            readyTasks.add(index);
+        }
+    }
+
+    // earliest clock value at which the best task could change: the next arrival or aging deadline
+    private int nextEventTime() {
+        int next = nextAgingDeadline();
+        if (nextArrival < arrivalOrder.length) {
+            next = Math.min(next, taskPool.get(arrivalOrder[nextArrival]).getArrivalTime());
+        }
+        return next;
+    }
+
+    int nextAgingDeadline() {
+        return (int) Math.min(Integer.MAX_VALUE, agingCalendar.nextTime());
+    }
+
+    private int compareTasks(Process a, Process b, int indexA, int indexB) {
+        if (a.getPriority() != b.getPriority()) {
+            return Integer.compare(a.getPriority(), b.getPriority());
+        }
+        if (a.getArrivalTime() != b.getArrivalTime()) {
+            return Integer.compare(a.getArrivalTime(), b.getArrivalTime());
+        }
+        int byName = a.getName().compareTo(b.getName());
+        return byName != 0 ? byName : Integer.compare(indexA, indexB);
+    }
+
+    private void recordFinalMetrics(Process task, int completionTime) {
+        int ta = completionTime - task.getArrivalTime();
+        int wait = ta - task.getBurstTime();
+        task.setTurnaroundTime(ta);
+        task.setWaitingTime(wait);
+        stats.completed(task.getArrivalTime(), task.getBurstTime(), completionTime);
+    }
+
+    // taskPool mirrors referenceList index for index
+    private void syncOriginalData() {
+        for (int i = 0; i < referenceList.size(); i++) {
+            Process original = referenceList.get(i);
+            Process sim = taskPool.get(i);
+            original.setWaitingTime(sim.getWaitingTime());
+            original.setTurnaroundTime(sim.getTurnaroundTime());
+        }
+    }
+
+    // view over the timeline: a new entry whenever a different task is switched to or runs
+    public List<String> getExecutionOrder() {
+        return timeline.executionOrder(true);
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    public RunStats getStats() {
+        return stats;
+    }
+}
@@ -17,6 +17,13 @@ public class Process {
      int completionTime;
      int currentQuantum;
      int phase;
+     int lastActivityTime;
+    // real-time inputs, 0 for none: deadline relative to each release, and the release period
+     int deadline;
+     int period;
+    // I/O requests after the first CPU burst, each followed by its own CPU burst; only IoSimulator
+    // runs them, the other engines see burstTime alone
+     List<IoBurst> io = List.of();
 
     public Process(String name, int arrivalTime, int burstTime, int priority, int quantumTime ) {
         this.name = name;
@@ -58,6 +65,16 @@ public class Process {
     }
 
 
+    // fresh, unscheduled copy carrying only the input fields
+    public Process copy() {
+        Process copy = new Process(name, arrivalTime, burstTime, priority, quantumTime);
+        copy.deadline = deadline;
+        copy.period = period;
+        copy.io = io;
+        return copy;
+    }
+
+
     public String getName() { return name; }
     public int getArrivalTime() { return arrivalTime; }
     public int getBurstTime() { return burstTime; }
@@ -88,6 +105,15 @@ public class Process {
         this.priority = priority;
     }
 
+    public int getDeadline() { return deadline; }
+    public void setDeadline(int deadline) { this.deadline = deadline; }
+
+    public int getPeriod() { return period; }
+    public void setPeriod(int period) { this.period = period; }
+
+    public List<IoBurst> getIoBursts() { return io; }
+    public void setIoBursts(List<IoBurst> io) { this.io = List.copyOf(io); }
+
     public String toString() {
         return "Process{" + "name='" + name + '\'' + ", arrival=" + arrivalTime +
                 ", burst=" + burstTime + ", priority=" + priority + '}';
@@ -0,0 +1,225 @@
+import java.util.*;
+import java.util.function.IntFunction;
+
+// Struct-of-arrays process store: one int column per Process field, addressed by process index.
+// About 28 bytes per process in its seven int columns, plus the name, 8 more with deadlines and 8
+// more once a quantum history is recorded, against roughly 150 for a Process object with its own
+// quantum history list. Quantum histories of all processes share one primitive append buffer,
+// 8 bytes per entry.
+public final class ProcessTable {
+    final int size;
+    final int[] arrival;
+    final int[] burst;
+    final int[] remaining;
+    final int[] priority;
+    final int[] quantum;
+    final int[] waiting;
+    final int[] turnaround;
+    // Real-time inputs, 0 for none: deadline relative to each release, and the release period.
+    // Both stay null until a process has either, so ordinary workloads pay nothing for them.
+    int[] deadline;
+    int[] period;
+    // null means the generated names P1..Pn
+    private final IntFunction<String> names;
+
+    // quantum history: entries chained backwards per process through historyPrev; the per-process
+    // columns stay null until the first entry, since only AG records histories
+    private int[] historyValue = new int[16];
+    private int[] historyPrev = new int[16];
+    private int historySize;
+    private int[] historyLast;
+    private int[] historyCount;
+
+    public ProcessTable(int size, String[] names) {
+        if (names != null && names.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " names, got " + names.length);
+        }
+        this.size = size;
+        this.names = names == null ? null : i -> names[i];
+        this.arrival = new int[size];
+        this.burst = new int[size];
+        this.remaining = new int[size];
+        this.priority = new int[size];
+        this.quantum = new int[size];
+        this.waiting = new int[size];
+        this.turnaround = new int[size];
+    }
+
+    // Template over already filled input columns, e.g. bulk copies out of a BinaryWorkload file.
+    // It has no simulation state, so it can only be read and forked, never scheduled itself.
+    // names resolves a process index to its name on demand, null for P1..Pn; deadline and period
+    // are null for a workload without real-time inputs.
+    static ProcessTable template(int[] arrival, int[] burst, int[] priority, int[] quantum,
+                                 int[] deadline, int[] period, IntFunction<String> names) {
+        return new ProcessTable(arrival, burst, priority, quantum, deadline, period, names);
+    }
+
+    private ProcessTable(int[] arrival, int[] burst, int[] priority, int[] quantum,
+                         int[] deadline, int[] period, IntFunction<String> names) {
+        this.size = arrival.length;
+        this.names = names;
+        this.arrival = arrival;
+        this.burst = burst;
+        this.priority = priority;
+        this.quantum = quantum;
+        this.deadline = deadline;
+        this.period = period;
+        this.remaining = null;
+        this.waiting = null;
+        this.turnaround = null;
+    }
+
+    // shares the input columns of base, with its own simulation state
+    private ProcessTable(ProcessTable base) {
+        this.size = base.size;
+        this.names = base.names;
+        this.arrival = base.arrival;
+        this.burst = base.burst;
+        this.priority = base.priority;
+        this.quantum = base.quantum.clone();
+        this.deadline = base.deadline;
+        this.period = base.period;
+        this.remaining = base.burst.clone();
+        this.waiting = new int[size];
+        this.turnaround = new int[size];
+    }
+
+    // Independent copy for another simulation run. Arrival, burst, priority, timing and names are shared,
+    // so they must not be written through either table; quantum and all results are per copy.
+    public ProcessTable fork() {
+        return new ProcessTable(this);
+    }
+
+    public static ProcessTable from(List<Process> processes) {
+        String[] names = new String[processes.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = processes.get(i).getName();
+        }
+        ProcessTable table = new ProcessTable(names.length, names);
+        for (int i = 0; i < names.length; i++) {
+            Process p = processes.get(i);
+            table.set(i, p.getArrivalTime(), p.getBurstTime(), p.getPriority(), p.getQuantumTime());
+            if (p.getDeadline() != 0 || p.getPeriod() != 0) {
+                table.setTiming(i, p.getDeadline(), p.getPeriod());
+            }
+        }
+        return table;
+    }
+
+    public void set(int i, int arrivalTime, int burstTime, int priorityValue, int quantumTime) {
+        arrival[i] = arrivalTime;
+        burst[i] = burstTime;
+        remaining[i] = burstTime;
+        priority[i] = priorityValue;
+        quantum[i] = quantumTime;
+    }
+
+    public void setTiming(int i, int relativeDeadline, int releasePeriod) {
+        if (deadline == null) {
+            if (relativeDeadline == 0 && releasePeriod == 0) return;
+            deadline = new int[size];
+            period = new int[size];
+        }
+        deadline[i] = relativeDeadline;
+        period[i] = releasePeriod;
+    }
+
+    public boolean hasTiming() { return deadline != null; }
+
+    public int size() { return size; }
+
+    public String name(int i) {
+        return names == null ? "P" + (i + 1) : names.apply(i);
+    }
+
+    public int getArrivalTime(int i) { return arrival[i]; }
+    public int getBurstTime(int i) { return burst[i]; }
+    public int getRemainingTime(int i) { return remaining[i]; }
+    public int getPriority(int i) { return priority[i]; }
+    public int getQuantumTime(int i) { return quantum[i]; }
+    public int getDeadline(int i) { return deadline == null ? 0 : deadline[i]; }
+    public int getPeriod(int i) { return period == null ? 0 : period[i]; }
+    public int getWaitingTime(int i) { return waiting[i]; }
+    public int getTurnaroundTime(int i) { return turnaround[i]; }
+
+    // process indices ordered by arrival time, as the timing wheel releases them; equal arrivals keep index order
+    public int[] sortedByArrival() {
+        return TimingWheel.sortedIndices(arrival, size);
+    }
+
+    // clears all simulation state so the table can be scheduled again
+    public void reset() {
+        System.arraycopy(burst, 0, remaining, 0, size);
+        Arrays.fill(waiting, 0);
+        Arrays.fill(turnaround, 0);
+        historyLast = null;
+        historyCount = null;
+        historySize = 0;
+    }
+
+    public void addQuantumToHistory(int i, int value) {
+        if (historyLast == null) {
+            historyLast = new int[size];
+            historyCount = new int[size];
+            Arrays.fill(historyLast, -1);
+        }
+        if (historySize == historyValue.length) {
+            historyValue = Arrays.copyOf(historyValue, historySize * 2);
+            historyPrev = Arrays.copyOf(historyPrev, historySize * 2);
+        }
+        historyValue[historySize] = value;
+        historyPrev[historySize] = historyLast[i];
+        historyLast[i] = historySize++;
+        historyCount[i]++;
+    }
+
+    public int[] getQuantumHistory(int i) {
+        if (historyCount == null) return new int[0];
+        int[] history = new int[historyCount[i]];
+        for (int k = history.length - 1, entry = historyLast[i]; k >= 0; k--, entry = historyPrev[entry]) {
+            history[k] = historyValue[entry];
+        }
+        return history;
+    }
+
+    // materializes process i with its results, for callers that still work on Process objects
+    public Process toProcess(int i) {
+        Process p = new Process(name(i), arrival[i], burst[i], priority[i], quantum[i]);
+        p.setRemainingTime(remaining[i]);
+        p.setWaitingTime(waiting[i]);
+        p.setTurnaroundTime(turnaround[i]);
+        p.setDeadline(getDeadline(i));
+        p.setPeriod(getPeriod(i));
+        for (int value : getQuantumHistory(i)) {
+            p.addQuantumToHistory(value);
+        }
+        return p;
+    }
+
+    // Read-only view of the results, materializing each process on access, so a finished run can be
+    // handed out without building one Process per process up front. Every get returns a new object.
+    public List<Process> asProcesses() {
+        return new ProcessView();
+    }
+
+    private final class ProcessView extends AbstractList<Process> implements RandomAccess {
+        @Override
+        public Process get(int i) {
+            Objects.checkIndex(i, size);
+            return toProcess(i);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    public List<Process> toProcesses() {
+        List<Process> processes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            processes.add(toProcess(i));
+        }
+        return processes;
+    }
+}
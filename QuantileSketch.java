@@ -0,0 +1,119 @@
+import java.io.*;
+import java.util.*;
+
+// Mergeable quantile sketch over non-negative times. Values below EXACT_LIMIT are counted
+// exactly; larger ones fall into logarithmic buckets with 1% relative error (the DDSketch layout),
+// so the sketch stays a few kilobytes however many values it has seen, and two sketches merge
+// by adding their buckets.
+public final class QuantileSketch {
+    static final int EXACT_LIMIT = 1024;
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    // log bucket i covers (GAMMA^(i - 1), GAMMA^i]; the first one holds EXACT_LIMIT
+    private static final int FIRST_LOG_INDEX = logIndex(EXACT_LIMIT);
+
+    private long[] exact = new long[16];
+    private long[] log = new long[0];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    private static int logIndex(long value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    public void add(long value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value: " + value);
+        if (value < EXACT_LIMIT) {
+            if (value >= exact.length) {
+                exact = Arrays.copyOf(exact, Math.min(EXACT_LIMIT, Math.max(exact.length * 2, (int) value + 1)));
+            }
+            exact[(int) value]++;
+        } else {
+            int bucket = logIndex(value) - FIRST_LOG_INDEX;
+            if (bucket >= log.length) {
+                log = Arrays.copyOf(log, Math.max(log.length * 2, bucket + 1));
+            }
+            log[bucket]++;
+        }
+        count++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    // adds other's values to this sketch; other is unchanged
+    public void merge(QuantileSketch other) {
+        if (other.exact.length > exact.length) exact = Arrays.copyOf(exact, other.exact.length);
+        for (int i = 0; i < other.exact.length; i++) exact[i] += other.exact[i];
+        if (other.log.length > log.length) log = Arrays.copyOf(log, other.log.length);
+        for (int i = 0; i < other.log.length; i++) log[i] += other.log[i];
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long count() { return count; }
+
+    // both bucket arrays up to their last non-empty bucket, then count, min and max
+    void writeBinary(DataOutputStream out) throws IOException {
+        writeBuckets(out, exact);
+        writeBuckets(out, log);
+        out.writeLong(count);
+        out.writeLong(min);
+        out.writeLong(max);
+    }
+
+    static QuantileSketch readBinary(DataInputStream in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch();
+        long[] exact = readBuckets(in);
+        if (exact.length > EXACT_LIMIT) throw new IOException("Corrupt sketch: " + exact.length + " exact buckets");
+        if (exact.length > sketch.exact.length) sketch.exact = exact;
+        else System.arraycopy(exact, 0, sketch.exact, 0, exact.length);
+        sketch.log = readBuckets(in);
+        sketch.count = in.readLong();
+        sketch.min = in.readLong();
+        sketch.max = in.readLong();
+        return sketch;
+    }
+
+    private static void writeBuckets(DataOutputStream out, long[] buckets) throws IOException {
+        int used = buckets.length;
+        while (used > 0 && buckets[used - 1] == 0) used--;
+        out.writeInt(used);
+        for (int i = 0; i < used; i++) out.writeLong(buckets[i]);
+    }
+
+    private static long[] readBuckets(DataInputStream in) throws IOException {
+        int used = in.readInt();
+        if (used < 0) throw new IOException("Corrupt sketch: " + used + " buckets");
+        long[] buckets = new long[used];
+        for (int i = 0; i < used; i++) buckets[i] = in.readLong();
+        return buckets;
+    }
+
+    // Nearest-rank quantile, q in [0, 1]: exact below EXACT_LIMIT, within 1% above it.
+    // 0 for an empty sketch.
+    public double quantile(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("Quantile out of range: " + q);
+        if (count == 0) return 0;
+        return valueAtRank(Math.max(1, (long) Math.ceil(q * count)));
+    }
+
+    // the rank-th smallest value, 1-based, with the same accuracy as quantile
+    double valueAtRank(long rank) {
+        long seen = 0;
+        for (int i = 0; i < exact.length; i++) {
+            seen += exact[i];
+            if (seen >= rank) return i;
+        }
+        for (int i = 0; i < log.length; i++) {
+            seen += log[i];
+            if (seen >= rank) {
+                double value = 2 * Math.pow(GAMMA, i + FIRST_LOG_INDEX) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+}
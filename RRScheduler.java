@@ -1,132 +1,132 @@
 import java.util.*;
 
 public class RRScheduler {
-    private ArrayList<Process> processes;
+    private final ProcessTable table;
+    // the caller's processes, updated with the results when the scheduler was built from a list
+    private final List<Process> processes;
+    // process indices sorted on arrival time, consumed by nextArrival
+    private final int[] arrivalOrder;
     private int currentTime;
+    private int nextArrival;
     private final int quantum;
     private final int contextSwitching;
-    private final double numProcesses;
-    private Vector<String> executionOrder;
+    private final Timeline timeline;
+    private boolean recordTimeline = true;
+    private long dispatchCount;
+    private SchedulerMetrics metrics;
+    private final RunStats stats = new RunStats();
 
     public RRScheduler(ArrayList<Process> processes, int quantum, int contextSwitching) {
-        this.processes = new ArrayList<>(processes);
-        this.executionOrder = new Vector<>();
-        // sorting on process arrival time
-        this.numProcesses = processes.size();
-        boolean swapped;
-        for (int i = 0; i < numProcesses-1; i++) {
-            swapped = false;
-            for (int j = 0; j < numProcesses - 1 - i; j++) {
-                if (processes.get(j).getArrivalTime() > processes.get(j+1).getArrivalTime()) {
-                    Process temp = processes.get(j);
-                    processes.set(j, processes.get(j+1));
-                    processes.set(j+1, temp);
-                    swapped = true;
-                }
-            }
-            if (!swapped) break;
-        }
+        this(ProcessTable.from(processes), processes, quantum, contextSwitching);
+    }
+
+    public RRScheduler(ProcessTable table, int quantum, int contextSwitching) {
+        this(table, (List<Process>) null, quantum, contextSwitching);
+    }
+
+    // arrivalOrder must be table.sortedByArrival(); passing it in lets many runs share one sort
+    public RRScheduler(ProcessTable table, int[] arrivalOrder, int quantum, int contextSwitching) {
+        this(table, null, arrivalOrder, quantum, contextSwitching);
+    }
+
+    private RRScheduler(ProcessTable table, List<Process> processes, int quantum, int contextSwitching) {
+        // sorting on process arrival time (stable, so equal arrivals keep their input order)
+        this(table, processes, table.sortedByArrival(), quantum, contextSwitching);
+    }
+
+    private RRScheduler(ProcessTable table, List<Process> processes, int[] arrivalOrder, int quantum, int contextSwitching) {
+        this.table = table;
+        this.processes = processes;
+        this.timeline = new Timeline(table::name);
+        this.arrivalOrder = arrivalOrder;
         this.currentTime = 0;
+        this.nextArrival = 0;
         this.quantum = quantum;
         this.contextSwitching = contextSwitching;
     }
 
-    public Vector<String> getExecutionOrder() {
-        return executionOrder;
+    // view over the timeline: one entry per dispatch, including repeats of the same process
+    public List<String> getExecutionOrder() {
+        return timeline.executionOrder(false);
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
     }
 
+    // sweeps only need the metrics, so they can skip recording the timeline
+    public void setRecordTimeline(boolean record) {
+        this.recordTimeline = record;
+    }
+
+    void setMetrics(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public RunStats getStats() {
+        return stats;
+    }
+
+    public long getDispatchCount() {
+        return dispatchCount;
+    }
 
     public void simulate() {
-        Queue<Process> finishedProcesses = new LinkedList<>();
-        Queue<Process> readyProcesses = new LinkedList<>();
-        Process currentProcess = null;
-        // could be replaced with a do-while
-        //==============================================
-        for (int i = 0; i < processes.size(); i++) {
-            if (processes.get(i).getArrivalTime() <= currentTime) {
-                readyProcesses.add(processes.get(i));
-                processes.remove(i);
-                i--;
+        int n = table.size();
+        int[] remaining = table.remaining;
+        // ready queue as a ring buffer of process indices; each process is queued at most once
+        int[] readyProcesses = new int[Math.max(1, n)];
+        int head = 0, count = 0;
+
+        while (nextArrival < n || count > 0) {
+            while (nextArrival < n && table.arrival[arrivalOrder[nextArrival]] <= currentTime) {
+                readyProcesses[(head + count++) % readyProcesses.length] = arrivalOrder[nextArrival++];
             }
-        }
-        while (readyProcesses.isEmpty()){
-            currentTime++;
-            for (int i = 0; i < processes.size(); i++) {
-                if (processes.get(i).getArrivalTime() <= currentTime) {
-                    readyProcesses.add(processes.get(i));
-                    processes.remove(i);
-                    i--;
-                }
+            // CPU is idle, jump straight to the next arrival
+            if (count == 0) {
+                if (recordTimeline) timeline.idle(currentTime, table.arrival[arrivalOrder[nextArrival]]);
+                currentTime = table.arrival[arrivalOrder[nextArrival]];
+                continue;
             }
-        }
-        //================================================
 
-        while (!readyProcesses.isEmpty()) {
-            currentProcess = readyProcesses.poll();
+            if (metrics != null) metrics.decision(count);
+            int currentProcess = readyProcesses[head];
+            head = (head + 1) % readyProcesses.length;
+            count--;
+
             // processing simulation
-            int currentProcessTime = Math.min(currentProcess.getRemainingTime(), quantum);
-            for (int j = 0; j < readyProcesses.size(); j++) {
-                Process temp = readyProcesses.poll();
-                temp.setTurnaroundTime(temp.getTurnaroundTime() + currentProcessTime + contextSwitching);
-                temp.setWaitingTime(temp.getWaitingTime() + currentProcessTime + contextSwitching);
-                readyProcesses.add(temp);
+            int currentProcessTime = Math.min(remaining[currentProcess], quantum);
+            if (remaining[currentProcess] == table.burst[currentProcess]) {
+                stats.firstDispatch(table.arrival[currentProcess], currentTime);
             }
-            for (int i = 0; i < currentProcessTime; i++){
-                currentTime++;
-                currentProcess.setRemainingTime(currentProcess.getRemainingTime() - 1);
-                for (int j = 0; j < processes.size(); j++) {
-                    if (processes.get(j).getArrivalTime() <= currentTime) {
-                        readyProcesses.add(processes.get(j));
-                        processes.remove(j);
-                        j--;
-                    }
-                }
+            // arrivals during the slice queue up ahead of the preempted process
+            currentTime += currentProcessTime;
+            remaining[currentProcess] -= currentProcessTime;
+            while (nextArrival < n && table.arrival[arrivalOrder[nextArrival]] <= currentTime) {
+                readyProcesses[(head + count++) % readyProcesses.length] = arrivalOrder[nextArrival++];
             }
-            executionOrder.add(currentProcess.getName());
-            if (currentProcess.getRemainingTime() > 0) readyProcesses.add(currentProcess);
-            else {
-                currentProcess.setTurnaroundTime(currentTime - currentProcess.getArrivalTime());
-                currentProcess.setWaitingTime(currentProcess.getTurnaroundTime() - currentProcess.getBurstTime());
-                finishedProcesses.add(currentProcess);
+
+            dispatchCount++;
+            if (recordTimeline) timeline.dispatch(currentProcess, currentTime - currentProcessTime, currentTime);
+            if (remaining[currentProcess] > 0) {
+                if (metrics != null) metrics.preempt(SchedulerMetrics.Preemption.QUANTUM_EXPIRED, timeline, currentProcess, currentTime);
+                readyProcesses[(head + count++) % readyProcesses.length] = currentProcess;
+            } else {
+                table.turnaround[currentProcess] = currentTime - table.arrival[currentProcess];
+                table.waiting[currentProcess] = table.turnaround[currentProcess] - table.burst[currentProcess];
+                stats.completed(table.arrival[currentProcess], table.burst[currentProcess], currentTime);
             }
+            if (recordTimeline) timeline.contextSwitch(-1, currentTime, currentTime + contextSwitching);
             currentTime += contextSwitching;
-            for (int i = 0; i < processes.size(); i++) {
-                if (processes.get(i).getArrivalTime() <= currentTime) {
-                    readyProcesses.add(processes.get(i));
-                    processes.remove(i);
-                    i--;
-                }
-            }
         }
 
-
-        double totalWaitingTime = 0;
-        double totalTurnAroundTime = 0;
-        System.out.print("    Execution Order: ");
-        for (String s : executionOrder) {
-            System.out.print(s + " ");
-        }
-        System.out.println();
-        // sorting the processes
-        ArrayList<Process> sortedProcesses = new ArrayList<>(finishedProcesses);
-        boolean swapped;
-        for (int i = 0; i < numProcesses-1; i++) {
-            swapped = false;
-            for (int j = 0; j < numProcesses - 1 - i; j++) {
-                if (sortedProcesses.get(j).getArrivalTime() > sortedProcesses.get(j+1).getArrivalTime()) {
-                    Process temp = sortedProcesses.get(j);
-                    sortedProcesses.set(j, sortedProcesses.get(j+1));
-                    sortedProcesses.set(j+1, temp);
-                    swapped = true;
-                }
+        if (processes != null) {
+            for (int i = 0; i < n; i++) {
+                Process p = processes.get(i);
+                p.setRemainingTime(remaining[i]);
+                p.setWaitingTime(table.waiting[i]);
+                p.setTurnaroundTime(table.turnaround[i]);
             }
-            if (!swapped) break;
         }
-
-        double avgTurnAroundTime = totalTurnAroundTime / numProcesses;
-        double avgWaitingTime = totalWaitingTime / numProcesses;
-
     }
 }
-
-
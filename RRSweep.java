@@ -0,0 +1,121 @@
+import java.util.*;
+import java.util.stream.IntStream;
+
+// Parameter sweep for Round Robin over a grid of (quantum, contextSwitch, agingInterval).
+//
+// The workload is turned into one ProcessTable and sorted by arrival once; every grid point
+// forks the table (sharing the input columns) and reuses the same arrival order. Points run in
+// parallel on the common fork-join pool. RR ignores the aging interval, so each (quantum,
+// contextSwitch) pair is simulated once and its metrics are filled in across the aging axis.
+//
+// Usage: java RRSweep --file test_1.json --quantum 1-100 --cs 0-100 [--aging 5] [--out sweep.csv]
+// A value is a single number, a range "a-b" or a list "a,b,c".
+public class RRSweep {
+
+    // metrics indexed [quantum][contextSwitch][aging], in the order the grid values were given
+    public static final class Result {
+        public final int[] quanta;
+        public final int[] contextSwitches;
+        public final int[] agingIntervals;
+        public final double[][][] averageWaitingTime;
+        public final double[][][] averageTurnaroundTime;
+        public final long[][][] dispatchCount;
+
+        Result(int[] quanta, int[] contextSwitches, int[] agingIntervals) {
+            this.quanta = quanta;
+            this.contextSwitches = contextSwitches;
+            this.agingIntervals = agingIntervals;
+            this.averageWaitingTime = new double[quanta.length][contextSwitches.length][agingIntervals.length];
+            this.averageTurnaroundTime = new double[quanta.length][contextSwitches.length][agingIntervals.length];
+            this.dispatchCount = new long[quanta.length][contextSwitches.length][agingIntervals.length];
+        }
+    }
+
+    public static Result sweep(Workload workload, int[] quanta, int[] contextSwitches, int[] agingIntervals) {
+        ProcessTable base = workload.toTable();
+        int[] arrivalOrder = base.sortedByArrival();
+        Result result = new Result(quanta, contextSwitches, agingIntervals);
+        int n = base.size();
+
+        IntStream.range(0, quanta.length * contextSwitches.length).parallel().forEach(point -> {
+            int qi = point / contextSwitches.length;
+            int ci = point % contextSwitches.length;
+
+            ProcessTable table = base.fork();
+            RRScheduler rr = new RRScheduler(table, arrivalOrder, quanta[qi], contextSwitches[ci]);
+            rr.setRecordTimeline(false);
+            rr.simulate();
+
+            long totalWaiting = 0, totalTurnaround = 0;
+            for (int i = 0; i < n; i++) {
+                totalWaiting += table.waiting[i];
+                totalTurnaround += table.turnaround[i];
+            }
+            double avgWaiting = n == 0 ? 0 : (double) totalWaiting / n;
+            double avgTurnaround = n == 0 ? 0 : (double) totalTurnaround / n;
+
+            // each thread writes only its own (qi, ci) cells
+            for (int ai = 0; ai < agingIntervals.length; ai++) {
+                result.averageWaitingTime[qi][ci][ai] = avgWaiting;
+                result.averageTurnaroundTime[qi][ci][ai] = avgTurnaround;
+                result.dispatchCount[qi][ci][ai] = rr.getDispatchCount();
+            }
+        });
+        return result;
+    }
+
+    static int[] parseValues(String value) {
+        if (value.contains(",")) {
+            return Arrays.stream(value.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        }
+        String[] range = value.split("-");
+        int from = Integer.parseInt(range[0].trim());
+        int to = Integer.parseInt(range[range.length - 1].trim());
+        return IntStream.rangeClosed(from, to).toArray();
+    }
+
+    public static void main(String[] args) throws java.io.IOException {
+        String file = null, out = null;
+        String quanta = null, switches = null, agings = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--file" -> file = args[++i];
+                case "--quantum" -> quanta = args[++i];
+                case "--cs" -> switches = args[++i];
+                case "--aging" -> agings = args[++i];
+                case "--out" -> out = args[++i];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("--file is required");
+
+        Workload workload = Workload.load(file, false);
+
+        long start = System.nanoTime();
+        Result result = sweep(workload,
+                quanta == null ? new int[]{workload.getRrQuantum()} : parseValues(quanta),
+                switches == null ? new int[]{workload.getContextSwitch()} : parseValues(switches),
+                agings == null ? new int[]{workload.getAgingInterval()} : parseValues(agings));
+        long nanos = System.nanoTime() - start;
+
+        try (java.io.PrintWriter writer = out == null
+                ? new java.io.PrintWriter(System.out)
+                : new java.io.PrintWriter(new java.io.BufferedWriter(new java.io.FileWriter(out)))) {
+            writer.println("quantum,contextSwitch,agingInterval,avgWaitingTime,avgTurnaroundTime,dispatches");
+            for (int qi = 0; qi < result.quanta.length; qi++) {
+                for (int ci = 0; ci < result.contextSwitches.length; ci++) {
+                    for (int ai = 0; ai < result.agingIntervals.length; ai++) {
+                        writer.printf(Locale.ROOT, "%d,%d,%d,%.4f,%.4f,%d%n",
+                                result.quanta[qi], result.contextSwitches[ci], result.agingIntervals[ai],
+                                result.averageWaitingTime[qi][ci][ai], result.averageTurnaroundTime[qi][ci][ai],
+                                result.dispatchCount[qi][ci][ai]);
+                    }
+                }
+            }
+        }
+        System.err.printf("%d points over %d processes in %.1f ms%n",
+                result.quanta.length * result.contextSwitches.length * result.agingIntervals.length,
+                workload.size(), nanos / 1e6);
+    }
+}
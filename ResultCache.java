@@ -0,0 +1,220 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+
+// Content-addressed memo of simulation results. The key is a SHA-256 over the engine name, the
+// engine version from SchedulerRegistry, the three scheduler parameters and Workload.contentHash(),
+// so equal workloads hit however they were loaded, and bumping an engine's version retires all of
+// its old entries at once.
+//
+// Results live in a bounded LRU in memory and, with withDiskTier, also as one file per key in a
+// directory that outlives the process. Every hit hands out fresh Process copies, so callers can
+// change them freely; the timeline is shared and must be treated as read-only.
+// Metrics are never cached, since they describe one run.
+//
+// Two threads missing on the same key at once both simulate; the results are equal, so either may win.
+public final class ResultCache {
+    private static final int FILE_MAGIC = 0x52455332; // "RES2"
+    private static final String FILE_SUFFIX = ".res";
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, ScheduleResult> entries;
+    private Path diskDir;
+
+    private long hits;
+    private long diskHits;
+    private long misses;
+
+    public ResultCache(int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be at least 1");
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ScheduleResult> eldest) {
+                return size() > ResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    // results are also written to, and looked up in, dir
+    public ResultCache withDiskTier(Path dir) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create cache directory " + dir, e);
+        }
+        this.diskDir = dir;
+        return this;
+    }
+
+    // the engine registered as name, answering from the cache where it can
+    public Scheduler scheduler(String name) {
+        SchedulerRegistry.get(name);
+        return workload -> run(name, workload);
+    }
+
+    public ScheduleResult run(String engine, Workload workload) {
+        String key = key(engine, workload);
+        ScheduleResult cached;
+        synchronized (this) {
+            cached = entries.get(key);
+            if (cached != null) hits++;
+        }
+        if (cached == null && diskDir != null) {
+            cached = readFromDisk(key);
+            if (cached != null) {
+                synchronized (this) {
+                    diskHits++;
+                    entries.put(key, cached);
+                }
+            }
+        }
+        if (cached != null) return copy(cached);
+
+        ScheduleResult result = SchedulerRegistry.get(engine).run(workload);
+        ScheduleResult stored = copy(result);
+        synchronized (this) {
+            misses++;
+            entries.put(key, stored);
+        }
+        if (diskDir != null) writeToDisk(key, stored);
+        return result;
+    }
+
+    public static String key(String engine, Workload workload) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        String canonical = engine + '\0' + SchedulerRegistry.version(engine) + '\0' + workload.getContextSwitch() + '\0'
+                + workload.getRrQuantum() + '\0' + workload.getAgingInterval() + '\0' + workload.contentHash();
+        return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getDiskHits() { return diskHits; }
+    public synchronized long getMisses() { return misses; }
+
+    // memory only; files in the disk tier stay
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private static ScheduleResult copy(ScheduleResult result) {
+        List<Process> processes = new ArrayList<>(result.getProcesses().size());
+        for (Process p : result.getProcesses()) {
+            processes.add(copyWithResults(p));
+        }
+        return new ScheduleResult(result.getExecutionOrder(), processes, result.getTimeline(),
+                result.getStats() == null ? null : result.getStats().copy(), null,
+                result.getDeadlines() == null ? null : result.getDeadlines().copy());
+    }
+
+    private static Process copyWithResults(Process p) {
+        Process copy = p.copy();
+        copy.setRemainingTime(p.getRemainingTime());
+        copy.setWaitingTime(p.getWaitingTime());
+        copy.setTurnaroundTime(p.getTurnaroundTime());
+        for (int value : p.getQuantumHistory()) {
+            copy.addQuantumToHistory(value);
+        }
+        return copy;
+    }
+
+    // Disk entry: magic, key, execution order, processes with their results, the timeline preceded
+    // by the names of its process ids, since the engines number processes differently, then the run
+    // and deadline stats. Entries of an older layout carry another magic and are simulated again.
+    private void writeToDisk(String key, ScheduleResult result) {
+        Path file = diskDir.resolve(key + FILE_SUFFIX);
+        try {
+            Path temp = Files.createTempFile(diskDir, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeUTF(key);
+                List<String> order = result.getExecutionOrder();
+                out.writeInt(order.size());
+                for (String name : order) out.writeUTF(name);
+
+                out.writeInt(result.getProcesses().size());
+                for (Process p : result.getProcesses()) {
+                    out.writeUTF(p.getName() == null ? "" : p.getName());
+                    out.writeInt(p.getArrivalTime());
+                    out.writeInt(p.getBurstTime());
+                    out.writeInt(p.getPriority());
+                    out.writeInt(p.getQuantumTime());
+                    out.writeInt(p.getRemainingTime());
+                    out.writeInt(p.getWaitingTime());
+                    out.writeInt(p.getTurnaroundTime());
+                    out.writeInt(p.getDeadline());
+                    out.writeInt(p.getPeriod());
+                    out.writeInt(p.getQuantumHistory().size());
+                    for (int value : p.getQuantumHistory()) out.writeInt(value);
+                }
+
+                Timeline timeline = result.getTimeline();
+                out.writeBoolean(timeline != null);
+                if (timeline != null) {
+                    int ids = 0;
+                    for (int i = 0; i < timeline.size(); i++) ids = Math.max(ids, timeline.getProcess(i) + 1);
+                    out.writeInt(ids);
+                    for (int pid = 0; pid < ids; pid++) out.writeUTF(timeline.name(pid));
+                    timeline.writeBinary(out);
+                }
+
+                out.writeBoolean(result.getStats() != null);
+                if (result.getStats() != null) result.getStats().writeBinary(out);
+                out.writeBoolean(result.getDeadlines() != null);
+                if (result.getDeadlines() != null) result.getDeadlines().writeBinary(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the disk tier is best effort; the result is still cached in memory
+            System.out.println("Warning: could not write cache entry " + file + ": " + e.getMessage());
+        }
+    }
+
+    // null when there is no usable entry for key
+    private ScheduleResult readFromDisk(String key) {
+        Path file = diskDir.resolve(key + FILE_SUFFIX);
+        if (!Files.exists(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || !in.readUTF().equals(key)) return null;
+            int orderSize = in.readInt();
+            List<String> order = new ArrayList<>(orderSize);
+            for (int i = 0; i < orderSize; i++) order.add(in.readUTF());
+
+            int count = in.readInt();
+            List<Process> processes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                Process p = new Process(name, in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                p.setRemainingTime(in.readInt());
+                p.setWaitingTime(in.readInt());
+                p.setTurnaroundTime(in.readInt());
+                p.setDeadline(in.readInt());
+                p.setPeriod(in.readInt());
+                int history = in.readInt();
+                for (int k = 0; k < history; k++) p.addQuantumToHistory(in.readInt());
+                processes.add(p);
+            }
+
+            Timeline timeline = null;
+            if (in.readBoolean()) {
+                String[] names = new String[in.readInt()];
+                for (int pid = 0; pid < names.length; pid++) names[pid] = in.readUTF();
+                timeline = Timeline.readBinary(in, pid -> names[pid]);
+            }
+            RunStats stats = in.readBoolean() ? RunStats.readBinary(in) : null;
+            DeadlineStats deadlines = in.readBoolean() ? DeadlineStats.readBinary(in) : null;
+            return new ScheduleResult(order, processes, timeline, stats, null, deadlines);
+        } catch (IOException e) {
+            System.out.println("Warning: ignoring unreadable cache entry " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
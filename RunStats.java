@@ -0,0 +1,146 @@
+import java.io.*;
+
+// Whole-run figures an engine gathers while it simulates: each process reports its first dispatch
+// and its completion once, and only running sums and quantile sketches are kept, so the cost does
+// not grow with the number of processes and results of separate runs can be merged.
+//
+// Response time is first dispatch minus arrival. Makespan runs from the earliest arrival to the last
+// completion; throughput is completions per time unit over it, and utilization is the share of it
+// spent running processes.
+//
+// Fairness is Jain's index over each process's CPU share while it was in the system, burst over
+// turnaround: 1 when every process progressed at the same rate, down to 1/n when one took it all.
+public final class RunStats {
+    private long completed;
+    private long responded;
+    private long totalWaiting;
+    private long totalTurnaround;
+    private long totalResponse;
+    private long busyTime;
+    private long firstArrival = Long.MAX_VALUE;
+    private long lastCompletion = Long.MIN_VALUE;
+    private double shareSum;
+    private double shareSquares;
+    private QuantileSketch waiting = new QuantileSketch();
+    private QuantileSketch turnaround = new QuantileSketch();
+    private QuantileSketch response = new QuantileSketch();
+
+    void firstDispatch(int arrival, int time) {
+        responded++;
+        totalResponse += time - arrival;
+        response.add(time - arrival);
+    }
+
+    void completed(int arrival, int burst, int completion) {
+        int ta = completion - arrival;
+        completed++;
+        totalTurnaround += ta;
+        totalWaiting += ta - burst;
+        turnaround.add(ta);
+        waiting.add(ta - burst);
+        busyTime += burst;
+        double share = ta == 0 ? 1 : (double) burst / ta;
+        shareSum += share;
+        shareSquares += share * share;
+        if (arrival < firstArrival) firstArrival = arrival;
+        if (completion > lastCompletion) lastCompletion = completion;
+    }
+
+    // adds other's processes to these, e.g. to total several runs; other is unchanged
+    public void merge(RunStats other) {
+        completed += other.completed;
+        responded += other.responded;
+        totalWaiting += other.totalWaiting;
+        totalTurnaround += other.totalTurnaround;
+        totalResponse += other.totalResponse;
+        busyTime += other.busyTime;
+        shareSum += other.shareSum;
+        shareSquares += other.shareSquares;
+        firstArrival = Math.min(firstArrival, other.firstArrival);
+        lastCompletion = Math.max(lastCompletion, other.lastCompletion);
+        waiting.merge(other.waiting);
+        turnaround.merge(other.turnaround);
+        response.merge(other.response);
+    }
+
+    RunStats copy() {
+        RunStats copy = new RunStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    // the sums in field order, then the three sketches
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeLong(completed);
+        out.writeLong(responded);
+        out.writeLong(totalWaiting);
+        out.writeLong(totalTurnaround);
+        out.writeLong(totalResponse);
+        out.writeLong(busyTime);
+        out.writeLong(firstArrival);
+        out.writeLong(lastCompletion);
+        out.writeDouble(shareSum);
+        out.writeDouble(shareSquares);
+        waiting.writeBinary(out);
+        turnaround.writeBinary(out);
+        response.writeBinary(out);
+    }
+
+    static RunStats readBinary(DataInputStream in) throws IOException {
+        RunStats stats = new RunStats();
+        stats.completed = in.readLong();
+        stats.responded = in.readLong();
+        stats.totalWaiting = in.readLong();
+        stats.totalTurnaround = in.readLong();
+        stats.totalResponse = in.readLong();
+        stats.busyTime = in.readLong();
+        stats.firstArrival = in.readLong();
+        stats.lastCompletion = in.readLong();
+        stats.shareSum = in.readDouble();
+        stats.shareSquares = in.readDouble();
+        stats.waiting = QuantileSketch.readBinary(in);
+        stats.turnaround = QuantileSketch.readBinary(in);
+        stats.response = QuantileSketch.readBinary(in);
+        return stats;
+    }
+
+    public long getCompleted() { return completed; }
+    public long getBusyTime() { return busyTime; }
+
+    public double getAverageWaitingTime() { return completed == 0 ? 0 : (double) totalWaiting / completed; }
+    public double getAverageTurnaroundTime() { return completed == 0 ? 0 : (double) totalTurnaround / completed; }
+    public double getAverageResponseTime() { return responded == 0 ? 0 : (double) totalResponse / responded; }
+
+    public double getWaitingPercentile(double q) { return waiting.quantile(q); }
+    public double getTurnaroundPercentile(double q) { return turnaround.quantile(q); }
+    public double getResponsePercentile(double q) { return response.quantile(q); }
+
+    public long getMakespan() {
+        return completed == 0 ? 0 : lastCompletion - firstArrival;
+    }
+
+    public double getThroughput() {
+        long span = getMakespan();
+        return span == 0 ? 0 : (double) completed / span;
+    }
+
+    public double getUtilization() {
+        long span = getMakespan();
+        return span == 0 ? 0 : (double) busyTime / span;
+    }
+
+    // Jain's index (sum x)^2 / (n * sum x^2) over the CPU shares; 1 when nothing completed or ran
+    public double getFairnessIndex() {
+        return shareSquares == 0 ? 1 : shareSum * shareSum / (completed * shareSquares);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d processes: WT avg %.2f p95 %.0f p99 %.0f, TAT avg %.2f p95 %.0f p99 %.0f, "
+                        + "RT avg %.2f p95 %.0f p99 %.0f, throughput %.4f/unit, utilization %.1f%%, fairness %.3f",
+                completed, getAverageWaitingTime(), getWaitingPercentile(0.95), getWaitingPercentile(0.99),
+                getAverageTurnaroundTime(), getTurnaroundPercentile(0.95), getTurnaroundPercentile(0.99),
+                getAverageResponseTime(), getResponsePercentile(0.95), getResponsePercentile(0.99),
+                getThroughput(), getUtilization() * 100, getFairnessIndex());
+    }
+}
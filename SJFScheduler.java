@@ -1,71 +1,193 @@
 import java.util.*;
 
 public class SJFScheduler {
-    public ArrayList<String> executionOrder = new ArrayList<>();
+    private Timeline timeline = new Timeline(i -> "P" + (i + 1));
+
+    // ready queue: binary min-heap of process indices on (remaining, arrival, name),
+    // with heapPos giving each index's slot (-1 when not queued) for decrease-key
+    private int[] heap;
+    private int[] heapPos;
+    private int heapSize;
+    private int[] remaining;
+    private int[] arrival;
+    private int[] nameRank;
+    private SchedulerMetrics metrics;
+    private RunStats stats = new RunStats();
+
+    void setMetrics(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
 
     public void schedule(ArrayList<Process> processes, int contextSwitchingTime) {
         processes.sort(Comparator.comparingInt(Process::getArrivalTime));
+        ProcessTable processTable = ProcessTable.from(processes);
+        schedule(processTable, contextSwitchingTime);
+
+        for (int i = 0; i < processes.size(); i++) {
+            Process p = processes.get(i);
+            p.setRemainingTime(processTable.remaining[i]);
+            p.setTurnaroundTime(processTable.turnaround[i]);
+            p.setWaitingTime(processTable.waiting[i]);
+        }
+    }
 
-        PriorityQueue<Process> readyQueue = new PriorityQueue<>(
-                Comparator.comparingInt(Process::getRemainingTime)
-                        .thenComparingInt(Process::getArrivalTime)
-        );
+    public void schedule(ProcessTable processTable, int contextSwitchingTime) {
+        int n = processTable.size();
+        int[] processes = processTable.sortedByArrival();
+        this.remaining = processTable.remaining;
+        this.arrival = processTable.arrival;
+        this.nameRank = rankNames(processTable);
+        this.heap = new int[Math.max(1, n)];
+        this.heapPos = new int[n];
+        this.heapSize = 0;
+        Arrays.fill(heapPos, -1);
 
         int currentTime = 0;
         int completed = 0;
-        int n = processes.size();
-        Process lastProcess = null;
+        int lastProcess = -1;
         int processIndex = 0;
 
-        executionOrder.clear();
+        timeline = new Timeline(processTable::name);
+        stats = new RunStats();
 
         while (completed < n) {
-            while (processIndex < n && processes.get(processIndex).getArrivalTime() <= currentTime) {
-                readyQueue.add(processes.get(processIndex));
+            while (processIndex < n && arrival[processes[processIndex]] <= currentTime) {
+                push(processes[processIndex]);
                 processIndex++;
             }
 
-            if (readyQueue.isEmpty()) {
-                currentTime++;
+            // CPU is idle, jump straight to the next arrival
+            if (heapSize == 0) {
+                timeline.idle(currentTime, arrival[processes[processIndex]]);
+                currentTime = arrival[processes[processIndex]];
                 continue;
             }
 
-            Process currentProcess = readyQueue.peek();
+            int currentProcess = heap[0];
+            int runTime;
+            if (metrics != null) metrics.decision(heapSize);
 
-            if (lastProcess != null && currentProcess != lastProcess) {
+            if (lastProcess != -1 && currentProcess != lastProcess) {
+                if (metrics != null && remaining[lastProcess] > 0) {
+                    metrics.preempt(SchedulerMetrics.Preemption.SHORTER_JOB, timeline, lastProcess, currentTime);
+                }
+                timeline.contextSwitch(currentProcess, currentTime, currentTime + contextSwitchingTime);
                 currentTime += contextSwitchingTime;
-                while (processIndex < n && processes.get(processIndex).getArrivalTime() <= currentTime) {
-                    readyQueue.add(processes.get(processIndex));
+                while (processIndex < n && arrival[processes[processIndex]] <= currentTime) {
+                    push(processes[processIndex]);
                     processIndex++;
                 }
+                // the switched-in process always gets one unit before arrivals during the switch can preempt it
+                runTime = 1;
+            } else {
+                // only a new arrival can preempt the running process, so run until then or until it finishes
+                runTime = remaining[currentProcess];
+                if (processIndex < n) {
+                    runTime = Math.min(runTime, arrival[processes[processIndex]] - currentTime);
+                }
             }
 
-            readyQueue.remove(currentProcess);
-
-            if (executionOrder.isEmpty() || !executionOrder.get(executionOrder.size() - 1).equals(currentProcess.getName())) {
-                executionOrder.add(currentProcess.getName());
+            timeline.run(currentProcess, currentTime, currentTime + runTime);
+            if (remaining[currentProcess] == processTable.burst[currentProcess]) {
+                stats.firstDispatch(arrival[currentProcess], currentTime);
             }
 
-
-            currentProcess.setRemainingTime(currentProcess.getRemainingTime() - 1);
-            currentTime++;
+            remaining[currentProcess] -= runTime;
+            currentTime += runTime;
             lastProcess = currentProcess;
 
-            if (currentProcess.getRemainingTime() == 0) {
+            if (remaining[currentProcess] == 0) {
                 completed++;
+                removeAt(heapPos[currentProcess]);
                 int finishTime = currentTime;
-                int turnAround = finishTime - currentProcess.getArrivalTime();
-                int waiting = turnAround - currentProcess.getBurstTime();
+                int turnAround = finishTime - arrival[currentProcess];
+                int waiting = turnAround - processTable.burst[currentProcess];
 
-                currentProcess.setTurnaroundTime(turnAround);
-                currentProcess.setWaitingTime(waiting);
+                processTable.turnaround[currentProcess] = turnAround;
+                processTable.waiting[currentProcess] = waiting;
+                stats.completed(arrival[currentProcess], processTable.burst[currentProcess], finishTime);
             } else {
-                readyQueue.add(currentProcess);
+                // its key only shrank, so it can only move up
+                siftUp(heapPos[currentProcess]);
             }
         }
     }
 
-    public ArrayList<String> getExecutionOrder() {
-        return executionOrder;
+    // position of each process in name order, so heap ties never touch the String objects
+    private static int[] rankNames(ProcessTable processTable) {
+        int n = processTable.size();
+        Integer[] byName = new Integer[n];
+        for (int i = 0; i < n; i++) byName[i] = i;
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++) names[i] = processTable.name(i);
+        Arrays.sort(byName, (a, b) -> names[a].compareTo(names[b]));
+        int[] rank = new int[n];
+        for (int r = 0; r < n; r++) rank[byName[r]] = r;
+        return rank;
+    }
+
+    private boolean less(int a, int b) {
+        if (remaining[a] != remaining[b]) return remaining[a] < remaining[b];
+        if (arrival[a] != arrival[b]) return arrival[a] < arrival[b];
+        return nameRank[a] < nameRank[b];
+    }
+
+    private void push(int process) {
+        heap[heapSize] = process;
+        heapPos[process] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private void removeAt(int slot) {
+        int removed = heap[slot];
+        heapPos[removed] = -1;
+        heapSize--;
+        if (slot == heapSize) return;
+        int last = heap[heapSize];
+        heap[slot] = last;
+        heapPos[last] = slot;
+        siftUp(slot);
+        siftDown(heapPos[last]);
+    }
+
+    private void siftUp(int slot) {
+        int process = heap[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!less(process, heap[parent])) break;
+            heap[slot] = heap[parent];
+            heapPos[heap[slot]] = slot;
+            slot = parent;
+        }
+        heap[slot] = process;
+        heapPos[process] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int process = heap[slot];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) child++;
+            if (!less(heap[child], process)) break;
+            heap[slot] = heap[child];
+            heapPos[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = process;
+        heapPos[process] = slot;
+    }
+
+    // view over the timeline: a new entry whenever a different process takes the CPU
+    public List<String> getExecutionOrder() {
+        return timeline.executionOrder(true);
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    public RunStats getStats() {
+        return stats;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+import java.io.*;
+import java.util.*;
+
+// Analytic schedulability of the periodic processes in a workload, the ones with a period. Each is
+// a task with cost burst, period T and relative deadline D (the period when it has none); aperiodic
+// processes and context switches are left out. Both tests work on the synchronous release, the
+// worst case, and neither walks the hyperperiod, so arbitrarily long hyperperiods cost nothing extra.
+//
+//   EDF  utilization <= 1 when every D >= T; otherwise the processor-demand test h(t) <= t, checked
+//        with Quick Processor-demand Analysis (Zhang and Burns) up to the hyperperiod or Baruah's bound
+//   RM   response-time analysis in period order, R = C + sum over higher tasks of ceil(R / Tj) * Cj,
+//        accepted when every R <= min(D, T); exact for D <= T, conservative beyond
+public final class Schedulability {
+    // far beyond any simulated time, and small enough that demand sums cannot overflow
+    static final long MAX_HYPERPERIOD = 1L << 40;
+
+    private final String test;
+    private final boolean schedulable;
+    private final double utilization;
+    private final int tasks;
+    // why the test failed, null when schedulable
+    private final String failing;
+
+    private Schedulability(String test, boolean schedulable, double utilization, int tasks, String failing) {
+        this.test = test;
+        this.schedulable = schedulable;
+        this.utilization = utilization;
+        this.tasks = tasks;
+        this.failing = failing;
+    }
+
+    public static Schedulability edf(ProcessTable table) {
+        int[] tasks = periodic(table);
+        long[] cost = new long[tasks.length], period = new long[tasks.length], deadline = new long[tasks.length];
+        double u = load(table, tasks, cost, period, deadline);
+        if (u > 1) return new Schedulability("EDF utilization", false, u, tasks.length, null);
+        boolean implicit = true;
+        for (int k = 0; k < tasks.length; k++) implicit &= deadline[k] >= period[k];
+        if (implicit) return new Schedulability("EDF utilization", true, u, tasks.length, null);
+
+        // demand only has to be checked up to the hyperperiod and, below full utilization, up to the
+        // Baruah bound, whichever is smaller
+        long minDeadline = Long.MAX_VALUE;
+        long maxDeadline = 0;
+        double slack = 0;
+        for (int k = 0; k < tasks.length; k++) {
+            minDeadline = Math.min(minDeadline, deadline[k]);
+            maxDeadline = Math.max(maxDeadline, deadline[k]);
+            slack += (double) (period[k] - deadline[k]) * cost[k] / period[k];
+        }
+        long limit = hyperperiod(period);
+        if (u < 1) limit = Math.min(limit, Math.max(maxDeadline, (long) Math.ceil(slack / (1 - u))));
+
+        long t = lastDeadlineBefore(limit + 1, period, deadline);
+        long h = demand(t, cost, period, deadline);
+        while (h <= t && h > minDeadline) {
+            t = h < t ? h : lastDeadlineBefore(t, period, deadline);
+            h = demand(t, cost, period, deadline);
+        }
+        boolean ok = h <= minDeadline;
+        return new Schedulability("EDF processor demand (QPA)", ok, u, tasks.length,
+                ok ? null : "demand " + h + " by t=" + t);
+    }
+
+    public static Schedulability rateMonotonic(ProcessTable table) {
+        int[] tasks = periodic(table);
+        // priority order: shorter period first, then earlier arrival, as DeadlineScheduler ranks them
+        Integer[] byPriority = new Integer[tasks.length];
+        for (int k = 0; k < tasks.length; k++) byPriority[k] = tasks[k];
+        Arrays.sort(byPriority, Comparator.<Integer>comparingInt(i -> table.period[i]).thenComparingInt(i -> table.arrival[i]));
+        for (int k = 0; k < tasks.length; k++) tasks[k] = byPriority[k];
+
+        long[] cost = new long[tasks.length], period = new long[tasks.length], deadline = new long[tasks.length];
+        double u = load(table, tasks, cost, period, deadline);
+        for (int k = 0; k < tasks.length; k++) {
+            long bound = Math.min(deadline[k], period[k]);
+            long r = cost[k];
+            for (int j = 0; j < k; j++) r += cost[j];
+            while (r <= bound) {
+                long next = cost[k];
+                for (int j = 0; j < k; j++) next += ceilDiv(r, period[j]) * cost[j];
+                if (next == r) break;
+                r = next;
+            }
+            if (r > bound) {
+                return new Schedulability("RM response time", false, u, tasks.length,
+                        table.name(tasks[k]) + " response " + r + " > " + bound);
+            }
+        }
+        return new Schedulability("RM response time", true, u, tasks.length, null);
+    }
+
+    // indices of the processes with a period, in index order
+    private static int[] periodic(ProcessTable table) {
+        int count = 0;
+        for (int i = 0; i < table.size; i++) if (table.getPeriod(i) > 0) count++;
+        int[] tasks = new int[count];
+        for (int i = 0, k = 0; i < table.size; i++) if (table.getPeriod(i) > 0) tasks[k++] = i;
+        return tasks;
+    }
+
+    // fills the task parameters and returns the total utilization
+    private static double load(ProcessTable table, int[] tasks, long[] cost, long[] period, long[] deadline) {
+        double u = 0;
+        for (int k = 0; k < tasks.length; k++) {
+            int i = tasks[k];
+            cost[k] = table.burst[i];
+            period[k] = table.period[i];
+            deadline[k] = table.deadline[i] > 0 ? table.deadline[i] : table.period[i];
+            u += (double) cost[k] / period[k];
+        }
+        return u;
+    }
+
+    // least common multiple of the periods, saturating at MAX_HYPERPERIOD
+    static long hyperperiod(long[] period) {
+        long h = 1;
+        for (long p : period) {
+            long reduced = h / gcd(h, p);
+            if (reduced > MAX_HYPERPERIOD / p) return MAX_HYPERPERIOD;
+            h = reduced * p;
+        }
+        return h;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    // work of the jobs with both release and deadline in [0, t]
+    private static long demand(long t, long[] cost, long[] period, long[] deadline) {
+        long h = 0;
+        for (int k = 0; k < cost.length; k++) {
+            if (t >= deadline[k]) h += ((t - deadline[k]) / period[k] + 1) * cost[k];
+        }
+        return h;
+    }
+
+    // latest absolute deadline strictly before t, or -1 when there is none
+    private static long lastDeadlineBefore(long t, long[] period, long[] deadline) {
+        long last = -1;
+        for (int k = 0; k < period.length; k++) {
+            if (t > deadline[k]) last = Math.max(last, deadline[k] + (t - deadline[k] - 1) / period[k] * period[k]);
+        }
+        return last;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeUTF(test);
+        out.writeBoolean(schedulable);
+        out.writeDouble(utilization);
+        out.writeInt(tasks);
+        out.writeBoolean(failing != null);
+        if (failing != null) out.writeUTF(failing);
+    }
+
+    static Schedulability readBinary(DataInputStream in) throws IOException {
+        String test = in.readUTF();
+        boolean schedulable = in.readBoolean();
+        double utilization = in.readDouble();
+        int tasks = in.readInt();
+        String failing = in.readBoolean() ? in.readUTF() : null;
+        return new Schedulability(test, schedulable, utilization, tasks, failing);
+    }
+
+    public String getTest() { return test; }
+    public boolean isSchedulable() { return schedulable; }
+    public double getUtilization() { return utilization; }
+    public int getTasks() { return tasks; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s, %d periodic tasks, utilization %.3f%s", test,
+                schedulable ? "schedulable" : "not schedulable", tasks, utilization,
+                failing == null ? "" : " (" + failing + ")");
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.*;
+
+// Outcome of one simulation: the execution order, the simulated processes,
+// which carry waiting time, turnaround time and quantum history, and the timeline when the engine keeps one.
+// Engines working on a ProcessTable hand over the table itself, read as processes on access.
+// The built-in engines also report RunStats, gathered during the simulation; metrics are only
+// there when SchedulerMetrics was on for the run, and deadline stats only for the real-time engines.
+public final class ScheduleResult {
+    private final List<String> executionOrder;
+    private final List<Process> processes;
+    private final Timeline timeline;
+    private final RunStats stats;
+    private final SchedulerMetrics.Snapshot metrics;
+    private final DeadlineStats deadlines;
+
+    public ScheduleResult(List<String> executionOrder, List<Process> processes) {
+        this(executionOrder, processes, null);
+    }
+
+    public ScheduleResult(List<String> executionOrder, List<Process> processes, Timeline timeline) {
+        this(executionOrder, processes, timeline, null, null);
+    }
+
+    public ScheduleResult(List<String> executionOrder, List<Process> processes, Timeline timeline,
+                          RunStats stats, SchedulerMetrics.Snapshot metrics) {
+        this(executionOrder, processes, timeline, stats, metrics, null);
+    }
+
+    public ScheduleResult(List<String> executionOrder, List<Process> processes, Timeline timeline,
+                          RunStats stats, SchedulerMetrics.Snapshot metrics, DeadlineStats deadlines) {
+        this.executionOrder = Collections.unmodifiableList(executionOrder);
+        this.processes = Collections.unmodifiableList(new ArrayList<>(processes));
+        this.timeline = timeline;
+        this.stats = stats;
+        this.metrics = metrics;
+        this.deadlines = deadlines;
+    }
+
+    // Processes read from the table on access, with no copy; the table must not be scheduled again.
+    public ScheduleResult(List<String> executionOrder, ProcessTable table, Timeline timeline,
+                          RunStats stats, SchedulerMetrics.Snapshot metrics) {
+        this(executionOrder, table, timeline, stats, metrics, null);
+    }
+
+    public ScheduleResult(List<String> executionOrder, ProcessTable table, Timeline timeline,
+                          RunStats stats, SchedulerMetrics.Snapshot metrics, DeadlineStats deadlines) {
+        this.executionOrder = Collections.unmodifiableList(executionOrder);
+        this.processes = table.asProcesses();
+        this.timeline = timeline;
+        this.stats = stats;
+        this.metrics = metrics;
+        this.deadlines = deadlines;
+    }
+
+    public List<String> getExecutionOrder() { return executionOrder; }
+    public List<Process> getProcesses() { return processes; }
+    public Timeline getTimeline() { return timeline; }
+    public RunStats getStats() { return stats; }
+    public SchedulerMetrics.Snapshot getMetrics() { return metrics; }
+    public DeadlineStats getDeadlines() { return deadlines; }
+
+    public double getAverageWaitingTime() {
+        if (stats != null) return stats.getAverageWaitingTime();
+        if (processes.isEmpty()) return 0;
+        double total = 0;
+        for (Process p : processes) total += p.getWaitingTime();
+        return total / processes.size();
+    }
+
+    public double getAverageTurnaroundTime() {
+        if (stats != null) return stats.getAverageTurnaroundTime();
+        if (processes.isEmpty()) return 0;
+        double total = 0;
+        for (Process p : processes) total += p.getTurnaroundTime();
+        return total / processes.size();
+    }
+}
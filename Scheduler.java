@@ -0,0 +1,6 @@
+// Common entry point for every scheduling algorithm.
+// An engine reads the workload without changing it and simulates on its own copies,
+// so one workload can be run by many engines, or by one engine many times, in parallel.
+public interface Scheduler {
+    ScheduleResult run(Workload workload);
+}
@@ -0,0 +1,225 @@
+import jdk.jfr.*;
+
+// Per-run instrumentation for the scheduling engines.
+//
+// An engine only records what its timeline cannot tell afterwards: the ready-queue depth at each
+// scheduling decision and why a running process lost the CPU. Dispatches, context switches, busy
+// and idle time are counted from the timeline when the run finishes, so they cost nothing in the loop.
+//
+// Metrics are on when the scheduler.metrics system property is true, after setEnabled(true), or while
+// a JFR recording has the scheduler events enabled. Otherwise start returns null, and every hook in
+// the engines is a single null check.
+public final class SchedulerMetrics {
+
+    public enum Preemption {
+        // RR slice or AG quantum used up with work left
+        QUANTUM_EXPIRED,
+        // SJF arrival with a shorter remaining time; AG phase 3
+        SHORTER_JOB,
+        // Priority arrival or aging; AG phase 2
+        HIGHER_PRIORITY
+    }
+
+    // bucket 0 counts empty queues, bucket k depths in [2^(k-1), 2^k)
+    static final int DEPTH_BUCKETS = 33;
+
+    private static volatile boolean enabled = Boolean.getBoolean("scheduler.metrics");
+
+    private final String engine;
+    private final long startNanos = System.nanoTime();
+    private long decisions;
+    private final long[] preemptions = new long[Preemption.values().length];
+    private final long[] depthHistogram = new long[DEPTH_BUCKETS];
+    private int maxDepth;
+    private final boolean preemptionEvents;
+
+    private SchedulerMetrics(String engine) {
+        this.engine = engine;
+        this.preemptionEvents = FlightRecorder.isInitialized() && new PreemptionEvent().isEnabled();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    // null when metrics are off
+    static SchedulerMetrics start(String engine) {
+        if (!enabled && !recording()) return null;
+        return new SchedulerMetrics(engine);
+    }
+
+    // Creating the first event object starts up JFR itself, which takes hundreds of milliseconds,
+    // so the scheduler events are only looked at once a recording has already done that.
+    private static boolean recording() {
+        return FlightRecorder.isInitialized() && new RunEvent().isEnabled();
+    }
+
+    // one scheduling decision among readyDepth ready processes, the chosen one included
+    void decision(int readyDepth) {
+        decisions++;
+        depthHistogram[32 - Integer.numberOfLeadingZeros(readyDepth)]++;
+        if (readyDepth > maxDepth) maxDepth = readyDepth;
+    }
+
+    // process pid of timeline stopped running at time with work left
+    void preempt(Preemption reason, Timeline timeline, int pid, int time) {
+        preemptions[reason.ordinal()]++;
+        if (preemptionEvents) {
+            PreemptionEvent event = new PreemptionEvent();
+            event.engine = engine;
+            event.reason = reason.name();
+            event.process = timeline.name(pid);
+            event.simulatedTime = time;
+            event.commit();
+        }
+    }
+
+    // Closes the run; a null metrics gives a null snapshot.
+    static Snapshot finish(SchedulerMetrics metrics, Timeline timeline, int processes) {
+        if (metrics == null) return null;
+        long wallNanos = System.nanoTime() - metrics.startNanos;
+        long dispatches = 0, switches = 0, busy = 0, switchTime = 0, idle = 0;
+        if (timeline != null) {
+            for (int i = 0; i < timeline.size(); i++) {
+                int length = timeline.getEnd(i) - timeline.getStart(i);
+                switch (timeline.getKind(i)) {
+                    case Timeline.RUN -> { dispatches++; busy += length; }
+                    case Timeline.SWITCH -> { switches++; switchTime += length; }
+                    default -> idle += length;
+                }
+            }
+        }
+        Snapshot snapshot = new Snapshot(metrics.engine, processes, metrics.decisions, dispatches, switches,
+                metrics.preemptions.clone(), metrics.depthHistogram.clone(), metrics.maxDepth,
+                busy, switchTime, idle, wallNanos);
+
+        if (recording()) {
+            RunEvent event = new RunEvent();
+            event.engine = snapshot.engine;
+            event.processes = processes;
+            event.decisions = snapshot.decisions;
+            event.dispatches = dispatches;
+            event.contextSwitches = switches;
+            event.preemptions = snapshot.getTotalPreemptions();
+            event.maxQueueDepth = snapshot.maxDepth;
+            event.idleTime = idle;
+            event.wallNanos = wallNanos;
+            event.nanosPerThousandDecisions = snapshot.getNanosPerThousandDecisions();
+            event.commit();
+        }
+        return snapshot;
+    }
+
+    // Immutable view of one run's metrics.
+    public static final class Snapshot {
+        private final String engine;
+        private final int processes;
+        private final long decisions;
+        private final long dispatches;
+        private final long contextSwitches;
+        private final long[] preemptions;
+        private final long[] depthHistogram;
+        private final int maxDepth;
+        private final long busyTime;
+        private final long switchTime;
+        private final long idleTime;
+        private final long wallNanos;
+
+        Snapshot(String engine, int processes, long decisions, long dispatches, long contextSwitches,
+                 long[] preemptions, long[] depthHistogram, int maxDepth,
+                 long busyTime, long switchTime, long idleTime, long wallNanos) {
+            this.engine = engine;
+            this.processes = processes;
+            this.decisions = decisions;
+            this.dispatches = dispatches;
+            this.contextSwitches = contextSwitches;
+            this.preemptions = preemptions;
+            this.depthHistogram = depthHistogram;
+            this.maxDepth = maxDepth;
+            this.busyTime = busyTime;
+            this.switchTime = switchTime;
+            this.idleTime = idleTime;
+            this.wallNanos = wallNanos;
+        }
+
+        public String getEngine() { return engine; }
+        public int getProcesses() { return processes; }
+        public long getDecisions() { return decisions; }
+        public long getDispatches() { return dispatches; }
+        public long getContextSwitches() { return contextSwitches; }
+        public long getPreemptions(Preemption reason) { return preemptions[reason.ordinal()]; }
+        public int getMaxQueueDepth() { return maxDepth; }
+        public long getBusyTime() { return busyTime; }
+        public long getSwitchTime() { return switchTime; }
+        public long getIdleTime() { return idleTime; }
+        public long getWallNanos() { return wallNanos; }
+
+        public long getTotalPreemptions() {
+            long total = 0;
+            for (long count : preemptions) total += count;
+            return total;
+        }
+
+        // decisions per power-of-two depth bucket; see DEPTH_BUCKETS
+        public long[] getQueueDepthHistogram() {
+            return depthHistogram.clone();
+        }
+
+        public double getNanosPerThousandDecisions() {
+            return decisions == 0 ? 0 : wallNanos * 1000.0 / decisions;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%s: %d processes, %d decisions, %d dispatches, %d context switches%n",
+                    engine, processes, decisions, dispatches, contextSwitches));
+            sb.append("  preemptions:");
+            for (Preemption reason : Preemption.values()) {
+                sb.append(' ').append(reason).append('=').append(preemptions[reason.ordinal()]);
+            }
+            sb.append(String.format("%n  busy %d, switching %d, idle %d time units%n", busyTime, switchTime, idleTime));
+            sb.append("  ready queue depth:");
+            for (int k = 0; k < depthHistogram.length; k++) {
+                if (depthHistogram[k] == 0) continue;
+                sb.append(' ').append(k == 0 ? "0" : k == 1 ? "1" : (1 << (k - 1)) + "-" + ((1L << k) - 1))
+                        .append(':').append(depthHistogram[k]);
+            }
+            sb.append(String.format(" (max %d)%n  %.3f ms wall, %.1f us per 1k decisions",
+                    maxDepth, wallNanos / 1e6, getNanosPerThousandDecisions() / 1e3));
+            return sb.toString();
+        }
+    }
+
+    @Name("scheduler.Run")
+    @Label("Scheduler Run")
+    @Category("Scheduler")
+    @Description("One simulation by a scheduling engine")
+    static final class RunEvent extends Event {
+        @Label("Engine") String engine;
+        @Label("Processes") int processes;
+        @Label("Decisions") long decisions;
+        @Label("Dispatches") long dispatches;
+        @Label("Context Switches") long contextSwitches;
+        @Label("Preemptions") long preemptions;
+        @Label("Max Queue Depth") int maxQueueDepth;
+        @Label("Idle Time") long idleTime;
+        @Label("Wall Time") @Timespan(Timespan.NANOSECONDS) long wallNanos;
+        @Label("Nanos per 1k Decisions") double nanosPerThousandDecisions;
+    }
+
+    @Name("scheduler.Preemption")
+    @Label("Scheduler Preemption")
+    @Category("Scheduler")
+    @Description("A running process lost the CPU with work left")
+    static final class PreemptionEvent extends Event {
+        @Label("Engine") String engine;
+        @Label("Reason") String reason;
+        @Label("Process") String process;
+        @Label("Simulated Time") int simulatedTime;
+    }
+}
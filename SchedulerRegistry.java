@@ -0,0 +1,117 @@
+import java.util.*;
+
+// Looks scheduling engines up by name. The built-in engines are registered under the
+// same names the expected-output JSON uses: SJF, RR, Priority and AG, plus MLFQ, CFS, and
+// the real-time EDF and RM.
+//
+// Every engine has a version, which ResultCache puts into its keys. Bump it whenever a change
+// to the engine can change its results, so cached results of the old version are never served.
+public final class SchedulerRegistry {
+    private static final Map<String, Scheduler> engines = new LinkedHashMap<>();
+    private static final Map<String, Integer> versions = new HashMap<>();
+    static final int MLFQ_LEVELS = 3;
+    // CFS target latency in minimum granularities, the kernel's default 6 ms over 0.75 ms
+    static final int CFS_LATENCY_GRANULES = 8;
+
+    static {
+        register("SJF", 1, workload -> {
+            SchedulerMetrics metrics = SchedulerMetrics.start("SJF");
+            ProcessTable table = workload.toTable();
+            SJFScheduler sjf = new SJFScheduler();
+            sjf.setMetrics(metrics);
+            sjf.schedule(table, workload.getContextSwitch());
+            return new ScheduleResult(sjf.getExecutionOrder(), table, sjf.getTimeline(), sjf.getStats(),
+                    SchedulerMetrics.finish(metrics, sjf.getTimeline(), table.size));
+        });
+        register("RR", 1, workload -> {
+            SchedulerMetrics metrics = SchedulerMetrics.start("RR");
+            ProcessTable table = workload.toTable();
+            RRScheduler rr = new RRScheduler(table, workload.getRrQuantum(), workload.getContextSwitch());
+            rr.setMetrics(metrics);
+            rr.simulate();
+            return new ScheduleResult(rr.getExecutionOrder(), table, rr.getTimeline(), rr.getStats(),
+                    SchedulerMetrics.finish(metrics, rr.getTimeline(), table.size));
+        });
+        register("Priority", 1, workload -> {
+            SchedulerMetrics metrics = SchedulerMetrics.start("Priority");
+            ArrayList<Process> processes = workload.newProcesses();
+            PriorityScheduler priority = new PriorityScheduler(processes, workload.getContextSwitch(), workload.getAgingInterval());
+            priority.setMetrics(metrics);
+            priority.simulate();
+            return new ScheduleResult(priority.getExecutionOrder(), processes, priority.getTimeline(), priority.getStats(),
+                    SchedulerMetrics.finish(metrics, priority.getTimeline(), processes.size()));
+        });
+        register("AG", 1, workload -> {
+            SchedulerMetrics metrics = SchedulerMetrics.start("AG");
+            AGScheduler ag = new AGScheduler();
+            ag.setMetrics(metrics);
+            ag.StartSimulation(workload.newProcesses().toArray(new Process[0]));
+            return new ScheduleResult(ag.getExecutionOrder(), ag.getFinishedProcesses(), ag.getTimeline(), ag.getStats(),
+                    SchedulerMetrics.finish(metrics, ag.getTimeline(), ag.getFinishedProcesses().size()));
+        });
+        // RR's quantum is the top level's, and the aging interval doubles as the boost period
+        register("MLFQ", 1, workload -> {
+            SchedulerMetrics metrics = SchedulerMetrics.start("MLFQ");
+            ArrayList<Process> processes = workload.newProcesses();
+            MLFQScheduler mlfq = new MLFQScheduler(processes, MLFQ_LEVELS, workload.getRrQuantum(),
+                    workload.getAgingInterval(), workload.getContextSwitch());
+            mlfq.setMetrics(metrics);
+            mlfq.simulate();
+            return new ScheduleResult(mlfq.getExecutionOrder(), processes, mlfq.getTimeline(), mlfq.getStats(),
+                    SchedulerMetrics.finish(metrics, mlfq.getTimeline(), processes.size()));
+        });
+        // RR's quantum is the minimum granularity
+        register("CFS", 1, workload -> {
+            SchedulerMetrics metrics = SchedulerMetrics.start("CFS");
+            ProcessTable table = workload.toTable();
+            CFSScheduler cfs = new CFSScheduler(table, CFS_LATENCY_GRANULES * workload.getRrQuantum(),
+                    workload.getRrQuantum(), workload.getContextSwitch());
+            cfs.setMetrics(metrics);
+            cfs.simulate();
+            return new ScheduleResult(cfs.getExecutionOrder(), table, cfs.getTimeline(), cfs.getStats(),
+                    SchedulerMetrics.finish(metrics, cfs.getTimeline(), table.size));
+        });
+        register("EDF", 1, workload -> runDeadline("EDF", DeadlineScheduler.Policy.EDF, workload));
+        register("RM", 1, workload -> runDeadline("RM", DeadlineScheduler.Policy.RATE_MONOTONIC, workload));
+    }
+
+    private SchedulerRegistry() {}
+
+    private static ScheduleResult runDeadline(String name, DeadlineScheduler.Policy policy, Workload workload) {
+        SchedulerMetrics metrics = SchedulerMetrics.start(name);
+        ProcessTable table = workload.toTable();
+        DeadlineScheduler scheduler = new DeadlineScheduler(table, policy, workload.getContextSwitch(),
+                DeadlineScheduler.defaultHorizon(table));
+        scheduler.setMetrics(metrics);
+        scheduler.simulate();
+        return new ScheduleResult(scheduler.getExecutionOrder(), table, scheduler.getTimeline(),
+                scheduler.getStats(), SchedulerMetrics.finish(metrics, scheduler.getTimeline(), table.size),
+                scheduler.getDeadlineStats());
+    }
+
+    public static synchronized void register(String name, Scheduler scheduler) {
+        register(name, 1, scheduler);
+    }
+
+    public static synchronized void register(String name, int version, Scheduler scheduler) {
+        engines.put(name, scheduler);
+        versions.put(name, version);
+    }
+
+    public static synchronized int version(String name) {
+        get(name);
+        return versions.get(name);
+    }
+
+    public static synchronized Scheduler get(String name) {
+        Scheduler scheduler = engines.get(name);
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Unknown scheduler: " + name + " (known: " + engines.keySet() + ")");
+        }
+        return scheduler;
+    }
+
+    public static synchronized Set<String> names() {
+        return new LinkedHashSet<>(engines.keySet());
+    }
+}
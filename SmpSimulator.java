@@ -0,0 +1,471 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Multi-core simulation: every core runs its own copy of one online engine (OnlineScheduler) with
+// its own ready queue, clock and context-switch accounting.
+//
+// Arrivals go to the least loaded core (lowest index on ties). Load balancing is one of
+//   NONE             processes stay where they were placed
+//   STEAL_WHEN_IDLE  a core with nothing to run takes the next ready process of the busiest core
+//   PERIODIC         every balanceInterval, ready processes move from the busiest core to the
+//                    least loaded one until their loads differ by at most one
+// A migrated process becomes ready on its new core after migrationCost time units.
+//
+// The cores advance together from one event to the next: an arrival, a balancing tick, or the
+// earliest point at which some core re-evaluates. All choices are made in core order, so runs are
+// deterministic, and a single core gives exactly the single-CPU engine's results.
+//
+// For large machines the cores can be split into equal partitions (core groups). This is a model
+// of its own, not a faster way to get the flat result: arrivals are dealt to the partitions in
+// turn whatever their load, placement and balancing above happen within a partition, and the
+// partitions only interact at sync points, where waiting processes move from the most to the least
+// loaded partition and land migrationCost later. A sync point is the next event in any partition
+// (a placement, a balancing tick or a core re-evaluating), but at least syncWindow after the last
+// one; the window defaults to the lookahead min(contextSwitch, migrationCost), at least 1, and a
+// larger one means fewer sync points and coarser balancing between partitions. With one partition
+// the model is the flat simulation above. Between sync points the partitions are independent, so
+// runParallel() advances them on separate threads and must give exactly the same result as run(),
+// which is what its results are checked against.
+//
+// Usage: java SmpSimulator --file test_1.json --engine RR --cores 8 [--balance steal|periodic|none]
+//        [--interval 10] [--migration-cost 1] [--partitions 4 --window 5 --threads 4] [--ag]
+public class SmpSimulator {
+
+    public enum Balancing { NONE, STEAL_WHEN_IDLE, PERIODIC }
+
+    public static final class CoreStats {
+        public final int core;
+        public final Timeline timeline;
+        public int busyTime;
+        public int switchTime;
+        public int switches;
+        public int idleTime;
+        public int migrationsIn;
+        public int migrationsOut;
+        public int completed;
+
+        CoreStats(int core, Timeline timeline) {
+            this.core = core;
+            this.timeline = timeline;
+        }
+
+        public double utilization(int makespan) {
+            return makespan == 0 ? 0 : (double) busyTime / makespan;
+        }
+    }
+
+    public static final class Result {
+        public final List<CoreStats> cores;
+        // in workload order, with waiting and turnaround times set
+        public final List<Process> processes;
+        // migrations of each process, indexed like processes
+        public final int[] migrations;
+        public final int makespan;
+
+        Result(List<CoreStats> cores, List<Process> processes, int[] migrations, int makespan) {
+            this.cores = cores;
+            this.processes = processes;
+            this.migrations = migrations;
+            this.makespan = makespan;
+        }
+
+        public double getAverageWaitingTime() {
+            return processes.stream().mapToInt(Process::getWaitingTime).average().orElse(0);
+        }
+
+        public double getAverageTurnaroundTime() {
+            return processes.stream().mapToInt(Process::getTurnaroundTime).average().orElse(0);
+        }
+
+        public int getTotalMigrations() {
+            return Arrays.stream(migrations).sum();
+        }
+
+        // dispatches on all cores by start time, the lower core first on ties
+        public List<String> getExecutionOrder() {
+            List<int[]> runs = new ArrayList<>();
+            for (CoreStats core : cores) {
+                for (int i = 0; i < core.timeline.size(); i++) {
+                    if (core.timeline.getKind(i) == Timeline.RUN) runs.add(new int[]{core.timeline.getStart(i), core.core, i});
+                }
+            }
+            runs.sort(Comparator.<int[]>comparingInt(r -> r[0]).thenComparingInt(r -> r[1]));
+            List<String> order = new ArrayList<>(runs.size());
+            for (int[] run : runs) {
+                Timeline timeline = cores.get(run[1]).timeline;
+                order.add(timeline.name(timeline.getProcess(run[2])));
+            }
+            return order;
+        }
+    }
+
+    private final String engine;
+    private final int coreCount;
+    private Balancing balancing = Balancing.STEAL_WHEN_IDLE;
+    private int balanceInterval = 10;
+    private int migrationCost = 0;
+    private int partitions = 1;
+    // 0 means the lookahead
+    private int syncWindow = 0;
+
+    public SmpSimulator(String engine, int cores) {
+        if (cores < 1) throw new IllegalArgumentException("At least one core is needed");
+        this.engine = engine;
+        this.coreCount = cores;
+    }
+
+    public SmpSimulator withBalancing(Balancing balancing) {
+        this.balancing = balancing;
+        return this;
+    }
+
+    public SmpSimulator withBalanceInterval(int interval) {
+        if (interval < 1) throw new IllegalArgumentException("Balance interval must be positive");
+        this.balanceInterval = interval;
+        return this;
+    }
+
+    public SmpSimulator withMigrationCost(int cost) {
+        this.migrationCost = cost;
+        return this;
+    }
+
+    public SmpSimulator withPartitions(int partitions) {
+        if (partitions < 1 || coreCount % partitions != 0) {
+            throw new IllegalArgumentException(coreCount + " cores cannot be split into " + partitions + " equal partitions");
+        }
+        this.partitions = partitions;
+        return this;
+    }
+
+    public SmpSimulator withSyncWindow(int window) {
+        if (window < 1) throw new IllegalArgumentException("Sync window must be positive");
+        this.syncWindow = window;
+        return this;
+    }
+
+    public Result run(Workload workload) {
+        return simulate(workload, null);
+    }
+
+    // Same model as run(), with the partitions advancing on a pool of threads between sync points.
+    // The result is identical to run() whatever the thread count.
+    public Result runParallel(Workload workload, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            return simulate(workload, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Result simulate(Workload workload, ExecutorService pool) {
+        ArrayList<Process> processes = workload.newProcesses();
+        int[] arrivals = new int[processes.size()];
+        for (int i = 0; i < arrivals.length; i++) arrivals[i] = processes.get(i).getArrivalTime();
+        int[] byArrival = TimingWheel.sortedIndices(arrivals, arrivals.length);
+
+        Map<Process, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < processes.size(); i++) index.put(processes.get(i), i);
+        int[] migrations = new int[processes.size()];
+
+        OnlineScheduler[] cores = new OnlineScheduler[coreCount];
+        List<CoreStats> stats = new ArrayList<>(coreCount);
+        for (int c = 0; c < coreCount; c++) {
+            cores[c] = OnlineScheduler.create(engine, workload.getContextSwitch(), workload.getRrQuantum(), workload.getAgingInterval());
+            stats.add(new CoreStats(c, cores[c].getTimeline()));
+        }
+
+        // arrivals are dealt to the partitions in arrival order, whatever their load
+        int perPartition = coreCount / partitions;
+        Partition[] parts = new Partition[partitions];
+        for (int k = 0; k < partitions; k++) {
+            parts[k] = new Partition(Arrays.copyOfRange(cores, k * perPartition, (k + 1) * perPartition),
+                    stats.subList(k * perPartition, (k + 1) * perPartition), index, migrations);
+        }
+        for (int k = 0; k < byArrival.length; k++) {
+            parts[k % partitions].arrivals.add(processes.get(byArrival[k]));
+        }
+        for (Partition part : parts) part.placeArrivals(0);
+
+        if (partitions == 1) {
+            parts[0].advance(Integer.MAX_VALUE);
+        } else {
+            int window = syncWindow > 0 ? syncWindow : Math.max(1, Math.min(workload.getContextSwitch(), migrationCost));
+            int horizon = 0;
+            while (!allDone(parts)) {
+                int next = nextSync(parts);
+                if (next == Integer.MAX_VALUE) throw new IllegalStateException("Simulation stalled at " + horizon);
+                horizon = Math.max(horizon + window, next);
+                advanceAll(parts, horizon, pool);
+                balancePartitions(parts, horizon);
+            }
+        }
+
+        // lets a trailing context switch finish, as in the single-CPU engines
+        for (OnlineScheduler core : cores) core.drain();
+
+        for (int c = 0; c < coreCount; c++) {
+            CoreStats core = stats.get(c);
+            Timeline timeline = core.timeline;
+            for (int i = 0; i < timeline.size(); i++) {
+                int length = timeline.getEnd(i) - timeline.getStart(i);
+                switch (timeline.getKind(i)) {
+                    case Timeline.RUN -> core.busyTime += length;
+                    case Timeline.SWITCH -> {
+                        core.switches++;
+                        core.switchTime += length;
+                    }
+                    default -> core.idleTime += length;
+                }
+            }
+            core.completed = cores[c].getFinishedProcesses().size();
+        }
+        int makespan = 0;
+        for (Process p : processes) makespan = Math.max(makespan, p.getArrivalTime() + p.getTurnaroundTime());
+        return new Result(stats, processes, migrations, makespan);
+    }
+
+    private static boolean allDone(Partition[] parts) {
+        for (Partition part : parts) {
+            if (!part.done()) return false;
+        }
+        return true;
+    }
+
+    // Between events no partition changes, so a sync point there would find the partitions as the
+    // last one left them; an empty partition's balancing ticks move nothing and are left out. An idle
+    // stretch therefore costs one sync point, not one per window. MAX_VALUE means nothing can happen.
+    private static int nextSync(Partition[] parts) {
+        int next = Integer.MAX_VALUE;
+        for (Partition part : parts) {
+            if (part.next < part.arrivals.size() || part.load() > 0) next = Math.min(next, part.nextEvent());
+        }
+        return next;
+    }
+
+    // partitions share nothing until the horizon, so each can run on its own thread
+    private static void advanceAll(Partition[] parts, int horizon, ExecutorService pool) {
+        if (pool == null) {
+            for (Partition part : parts) part.advance(horizon);
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(parts.length);
+        for (Partition part : parts) {
+            tasks.add(() -> {
+                part.advance(horizon);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted at " + horizon, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Partition failed before " + horizon, e.getCause());
+        }
+    }
+
+    // at a sync point, waiting processes move from the most to the least loaded partition
+    // until their loads differ by at most one
+    private void balancePartitions(Partition[] parts, int time) {
+        while (true) {
+            Partition from = null, to = parts[0];
+            for (Partition part : parts) {
+                if (part.load() < to.load()) to = part;
+                if (busiest(part.cores, -1) >= 0 && (from == null || part.load() > from.load())) from = part;
+            }
+            if (from == null || from == to || from.load() - to.load() <= 1) return;
+
+            int victim = busiest(from.cores, -1);
+            int thief = leastLoadedIndex(to.cores);
+            Process p = from.cores[victim].takeWaiting();
+            from.stats.get(victim).migrationsOut++;
+            from.assigned--;
+            to.cores[thief].adopt(p, time + migrationCost);
+            to.stats.get(thief).migrationsIn++;
+            to.assigned++;
+            from.migrations[from.index.get(p)]++;
+        }
+    }
+
+    // One group of cores with its own arrivals, placement and balancing. Between sync points a
+    // partition touches only its own cores, so partitions can advance concurrently.
+    private final class Partition {
+        final OnlineScheduler[] cores;
+        final List<CoreStats> stats;
+        final List<Process> arrivals = new ArrayList<>();
+        final Map<Process, Integer> index;
+        final int[] migrations;
+        int next;
+        int time;
+        int nextBalance = balancing == Balancing.PERIODIC ? balanceInterval : Integer.MAX_VALUE;
+        // processes placed on or moved into this partition, minus those moved out
+        int assigned;
+
+        Partition(OnlineScheduler[] cores, List<CoreStats> stats, Map<Process, Integer> index, int[] migrations) {
+            this.cores = cores;
+            this.stats = stats;
+            this.index = index;
+            this.migrations = migrations;
+        }
+
+        boolean done() {
+            return next == arrivals.size() && finishedCount(cores) == assigned;
+        }
+
+        int load() {
+            int load = 0;
+            for (OnlineScheduler core : cores) load += core.load();
+            return load;
+        }
+
+        // Arrivals at t are placed on the least loaded core as of t - 1, with the cores stopped
+        // there, so placement does not depend on where the loop happened to stop before.
+        void placeArrivals(int upTo) {
+            while (next < arrivals.size() && arrivals.get(next).getArrivalTime() <= upTo) {
+                cores[leastLoadedIndex(cores)].submit(arrivals.get(next++));
+                assigned++;
+            }
+        }
+
+        // next event: the cores stopping just before an arrival, a balancing tick, or the first
+        // core to re-evaluate; MAX_VALUE when there is none
+        int nextEvent() {
+            int until = Integer.MAX_VALUE;
+            if (next < arrivals.size()) until = arrivals.get(next).getArrivalTime() - 1;
+            until = Math.min(until, nextBalance);
+            for (OnlineScheduler core : cores) {
+                OnlineScheduler.Decision decision = core.nextDecision();
+                // a zero-length switch or phase resolves within the next unit
+                if (decision.until >= 0) until = Math.min(until, Math.max(decision.until, time + 1));
+            }
+            return until;
+        }
+
+        void advance(int horizon) {
+            while (time < horizon) {
+                if (horizon == Integer.MAX_VALUE && done()) return;
+
+                int until = Math.min(horizon, nextEvent());
+                // only possible when every core is idle, nothing is arriving and work sits unfinished
+                if (until == Integer.MAX_VALUE) throw new IllegalStateException("Simulation stalled at " + time);
+
+                for (OnlineScheduler core : cores) core.advanceTo(until);
+                time = until;
+
+                if (balancing == Balancing.STEAL_WHEN_IDLE) {
+                    // an empty core has nothing waiting, so it is never its own victim; the victim is
+                    // picked after the check, since nextDecision() dispatches from a core's own queue
+                    for (int c = 0; c < cores.length; c++) {
+                        if (cores[c].nextDecision().kind != Timeline.IDLE || cores[c].load() > 0) continue;
+                        int victim = busiest(cores, -1);
+                        if (victim < 0) break;
+                        migrate(victim, c);
+                    }
+                } else if (time == nextBalance) {
+                    while (true) {
+                        int from = busiest(cores, -1);
+                        if (from < 0) break;
+                        int to = leastLoadedIndex(cores);
+                        if (cores[from].load() - cores[to].load() <= 1) break;
+                        migrate(from, to);
+                    }
+                    nextBalance += balanceInterval;
+                }
+                placeArrivals(time + 1);
+            }
+        }
+
+        private void migrate(int from, int to) {
+            Process p = cores[from].takeWaiting();
+            stats.get(from).migrationsOut++;
+            cores[to].adopt(p, time + migrationCost);
+            stats.get(to).migrationsIn++;
+            migrations[index.get(p)]++;
+        }
+    }
+
+    private static int finishedCount(OnlineScheduler[] cores) {
+        int count = 0;
+        for (OnlineScheduler core : cores) count += core.getFinishedProcesses().size();
+        return count;
+    }
+
+    private static int leastLoadedIndex(OnlineScheduler[] cores) {
+        int best = 0;
+        for (int c = 1; c < cores.length; c++) {
+            if (cores[c].load() < cores[best].load()) best = c;
+        }
+        return best;
+    }
+
+    // core other than exclude with the most waiting processes, or -1 when none is waiting anywhere
+    private static int busiest(OnlineScheduler[] cores, int exclude) {
+        int best = -1;
+        for (int c = 0; c < cores.length; c++) {
+            if (c == exclude || cores[c].waitingCount() == 0) continue;
+            if (best < 0 || cores[c].waitingCount() > cores[best].waitingCount()) best = c;
+        }
+        return best;
+    }
+
+    // buffered, since the per-process table can be very long
+    public static void printReport(Result result) {
+        java.io.PrintWriter out = new java.io.PrintWriter(new java.io.BufferedWriter(new java.io.OutputStreamWriter(System.out)));
+        out.printf(Locale.ROOT, "makespan %d, avg WT %.2f, avg TAT %.2f, migrations %d%n",
+                result.makespan, result.getAverageWaitingTime(), result.getAverageTurnaroundTime(), result.getTotalMigrations());
+        out.println("core  util%  busy  switches  switchTime  idle  in  out  done");
+        for (CoreStats core : result.cores) {
+            out.printf(Locale.ROOT, "%4d %6.1f %5d %9d %11d %5d %3d %4d %5d%n",
+                    core.core, 100 * core.utilization(result.makespan), core.busyTime, core.switches,
+                    core.switchTime, core.idleTime, core.migrationsIn, core.migrationsOut, core.completed);
+        }
+        out.println("process  WT  TAT  migrations");
+        for (int i = 0; i < result.processes.size(); i++) {
+            Process p = result.processes.get(i);
+            out.printf("%-7s %3d %4d %11d%n", p.getName(), p.getWaitingTime(), p.getTurnaroundTime(), result.migrations[i]);
+        }
+        out.flush();
+    }
+
+    public static void main(String[] args) {
+        String file = null, engine = "RR";
+        boolean agFormat = false;
+        int cores = 4, interval = 10, cost = 0, partitions = 1, window = 0, threads = 1;
+        Balancing balancing = Balancing.STEAL_WHEN_IDLE;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--file" -> file = args[++i];
+                case "--ag" -> agFormat = true;
+                case "--engine" -> engine = args[++i];
+                case "--cores" -> cores = Integer.parseInt(args[++i]);
+                case "--balance" -> balancing = switch (args[++i]) {
+                    case "none" -> Balancing.NONE;
+                    case "steal" -> Balancing.STEAL_WHEN_IDLE;
+                    case "periodic" -> Balancing.PERIODIC;
+                    default -> throw new IllegalArgumentException("Unknown balancing: " + args[i]);
+                };
+                case "--interval" -> interval = Integer.parseInt(args[++i]);
+                case "--migration-cost" -> cost = Integer.parseInt(args[++i]);
+                case "--partitions" -> partitions = Integer.parseInt(args[++i]);
+                case "--window" -> window = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("--file is required");
+
+        SmpSimulator simulator = new SmpSimulator(engine, cores)
+                .withBalancing(balancing)
+                .withBalanceInterval(interval)
+                .withMigrationCost(cost)
+                .withPartitions(partitions);
+        if (window > 0) simulator.withSyncWindow(window);
+        Workload workload = Workload.load(file, agFormat);
+        Result result = threads > 1 ? simulator.runParallel(workload, threads) : simulator.run(workload);
+        printReport(result);
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.*;
+import java.util.*;
+import java.util.function.IntFunction;
+
+// Gantt-style record of a simulation: (process, start, end, kind) intervals in parallel primitive
+// arrays, about 13 bytes per interval. Consecutive chunks of the same dispatch are merged into one
+// interval as they are recorded, so the size is O(dispatches) whatever the simulated time span.
+//
+// Context switches and idle CPU time are explicit intervals. A switch carries the process being
+// switched to when the engine knows it, otherwise -1.
+public final class Timeline {
+    public static final byte RUN = 0;
+    public static final byte SWITCH = 1;
+    public static final byte IDLE = 2;
+
+    private static final int BINARY_MAGIC = 0x544C4E31; // "TLN1"
+
+    private final IntFunction<String> names;
+    private int[] process = new int[16];
+    private int[] start = new int[16];
+    private int[] end = new int[16];
+    private byte[] kind = new byte[16];
+    private int size;
+
+    public Timeline(IntFunction<String> names) {
+        this.names = names;
+    }
+
+    // starts a new dispatch of pid, even if pid was running just before
+    public void dispatch(int pid, int from, int to) {
+        append(pid, from, to, RUN);
+    }
+
+    // pid keeps running: extends its current interval when contiguous, otherwise starts a new dispatch
+    public void run(int pid, int from, int to) {
+        if (size > 0 && kind[size - 1] == RUN && process[size - 1] == pid && end[size - 1] == from) {
+            end[size - 1] = to;
+        } else {
+            append(pid, from, to, RUN);
+        }
+    }
+
+    // zero-length switches are kept when they name a target, since they still change the order view
+    public void contextSwitch(int pid, int from, int to) {
+        if (to > from || pid >= 0) {
+            append(pid, from, to, SWITCH);
+        }
+    }
+
+    public void idle(int from, int to) {
+        if (to <= from) return;
+        if (size > 0 && kind[size - 1] == IDLE && end[size - 1] == from) {
+            end[size - 1] = to;
+        } else {
+            append(-1, from, to, IDLE);
+        }
+    }
+
+    private void append(int pid, int from, int to, byte type) {
+        if (size == process.length) {
+            int capacity = size * 2;
+            process = Arrays.copyOf(process, capacity);
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            kind = Arrays.copyOf(kind, capacity);
+        }
+        process[size] = pid;
+        start[size] = from;
+        end[size] = to;
+        kind[size] = type;
+        size++;
+    }
+
+    public int size() { return size; }
+    public int getProcess(int i) { return process[i]; }
+    public int getStart(int i) { return start[i]; }
+    public int getEnd(int i) { return end[i]; }
+    public byte getKind(int i) { return kind[i]; }
+
+    public String name(int pid) {
+        return pid < 0 ? "" : names.apply(pid);
+    }
+
+    // Execution order as a read-only list of names backed by this timeline.
+    // Without collapsing, every RUN interval is one entry (one per dispatch).
+    // With collapsing, switch targets count too and consecutive repeats of a name are dropped,
+    // which keeps a process that was switched to but preempted during the switch in the order.
+    public List<String> executionOrder(boolean collapseRepeats) {
+        int[] entries = new int[16];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            boolean entry = kind[i] == RUN || (collapseRepeats && kind[i] == SWITCH && process[i] >= 0);
+            if (!entry) continue;
+            if (collapseRepeats && count > 0 && process[entries[count - 1]] == process[i]) continue;
+            if (count == entries.length) entries = Arrays.copyOf(entries, count * 2);
+            entries[count++] = i;
+        }
+        final int[] index = entries;
+        final int length = count;
+        return new AbstractList<String>() {
+            @Override
+            public String get(int i) {
+                Objects.checkIndex(i, length);
+                return names.apply(process[index[i]]);
+            }
+
+            @Override
+            public int size() {
+                return length;
+            }
+        };
+    }
+
+    public void writeCsv(Writer out) throws IOException {
+        out.write("process,start,end,kind\n");
+        for (int i = 0; i < size; i++) {
+            String type = kind[i] == RUN ? "run" : kind[i] == SWITCH ? "switch" : "idle";
+            out.write(name(process[i]) + "," + start[i] + "," + end[i] + "," + type + "\n");
+        }
+    }
+
+    // magic, interval count, then the four columns; names are not written
+    public void writeBinary(DataOutputStream out) throws IOException {
+        out.writeInt(BINARY_MAGIC);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) out.writeInt(process[i]);
+        for (int i = 0; i < size; i++) out.writeInt(start[i]);
+        for (int i = 0; i < size; i++) out.writeInt(end[i]);
+        out.write(kind, 0, size);
+    }
+
+    public static Timeline readBinary(DataInputStream in, IntFunction<String> names) throws IOException {
+        if (in.readInt() != BINARY_MAGIC) {
+            throw new IOException("Not a binary timeline");
+        }
+        int count = in.readInt();
+        Timeline timeline = new Timeline(names);
+        timeline.process = new int[Math.max(1, count)];
+        timeline.start = new int[Math.max(1, count)];
+        timeline.end = new int[Math.max(1, count)];
+        timeline.kind = new byte[Math.max(1, count)];
+        for (int i = 0; i < count; i++) timeline.process[i] = in.readInt();
+        for (int i = 0; i < count; i++) timeline.start[i] = in.readInt();
+        for (int i = 0; i < count; i++) timeline.end[i] = in.readInt();
+        in.readFully(timeline.kind, 0, count);
+        timeline.size = count;
+        return timeline;
+    }
+}
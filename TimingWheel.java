@@ -0,0 +1,227 @@
+import java.util.*;
+
+// Event calendar over non-negative int times: a hierarchical timing wheel (Varghese and Lauck) with
+// LEVELS wheels of 64 slots each. Level k slots are 64^k time units wide. An event sits on the level
+// of the highest 6-bit group in which its time differs from the wheel's current time, so inserting
+// is O(1). Polling takes the lowest non-empty level, found through per-level occupancy bitmaps; a
+// slot above level 0 is cascaded into the levels below once the clock reaches it. Every event moves
+// down at most LEVELS times, so advancing is amortized O(1) per event however sparse and long the
+// horizon.
+//
+// Events are int payloads whose meaning is up to the caller. They live in intrusive slot lists over
+// parallel arrays, with no object per event, and events due at the same time come out in the order
+// they were scheduled. schedule returns a handle that cancels the event in O(1) until it is polled,
+// so timers that get re-armed (an aging deadline, a quantum) leave nothing stale behind.
+//
+// The shared calendar of the engines: arrival order (sortedIndices), the Priority engine's aging
+// deadlines, DeadlineScheduler's job releases, OnlineScheduler's pending submissions and
+// IoSimulator's arrivals and I/O completions.
+public final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    // 6 levels of 6 bits cover every non-negative int
+    private static final int LEVELS = 6;
+    private static final int NONE = -1;
+
+    private int now;
+    private int size;
+    // earliest pending time once computed, -1 when it has to be found again
+    private long cachedNext = -1;
+
+    private final int[] head = new int[LEVELS * SLOTS];
+    private final int[] tail = new int[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    // event storage, threaded into doubly-linked slot lists, or the free list through next
+    private int[] time = new int[64];
+    private int[] payload = new int[64];
+    private int[] next = new int[64];
+    private int[] prev = new int[64];
+    // slot list holding the entry, NONE while it is free
+    private int[] slotOf = new int[64];
+    private int free = NONE;
+    private int used;
+
+    public TimingWheel() {
+        this(0);
+    }
+
+    // start is the earliest time that can be scheduled
+    public TimingWheel(int start) {
+        if (start < 0) throw new IllegalArgumentException("Negative start time: " + start);
+        this.now = start;
+        Arrays.fill(head, NONE);
+        Arrays.fill(tail, NONE);
+    }
+
+    // Indices 0..count-1 of times in ascending order, equal times in index order: what a wheel holding
+    // event i at times[i] hands back. A stable sort without comparisons; negative times are shifted up.
+    // Times spanning more than an int don't fit the wheel and are sorted by comparison instead.
+    public static int[] sortedIndices(int[] times, int count) {
+        int min = 0, max = 0;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, times[i]);
+            max = Math.max(max, times[i]);
+        }
+        int[] order = new int[count];
+        if ((long) max - min > Integer.MAX_VALUE) {
+            // time in the high half and index in the low half: distinct keys, ties broken by index
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) keys[i] = (long) times[i] << 32 | i;
+            Arrays.sort(keys);
+            for (int i = 0; i < count; i++) order[i] = (int) keys[i];
+            return order;
+        }
+        TimingWheel wheel = new TimingWheel();
+        wheel.reserve(count);
+        for (int i = 0; i < count; i++) wheel.schedule(times[i] - min, i);
+        for (int i = 0; i < count; i++) order[i] = wheel.poll();
+        return order;
+    }
+
+    // at may be the current time but not before it; returns a handle for cancel, valid until the event is polled
+    public int schedule(int at, int event) {
+        if (at < now) throw new IllegalArgumentException("Cannot schedule at " + at + ", the wheel is at " + now);
+        int entry = allocate();
+        time[entry] = at;
+        payload[entry] = event;
+        append(entry);
+        size++;
+        if (cachedNext >= 0 && at < cachedNext) cachedNext = at;
+        return entry;
+    }
+
+    // removes a pending event
+    public void cancel(int handle) {
+        if (handle < 0 || handle >= used || slotOf[handle] == NONE) {
+            throw new IllegalArgumentException("No pending event for handle " + handle);
+        }
+        int slot = slotOf[handle];
+        if (prev[handle] == NONE) {
+            head[slot] = next[handle];
+        } else {
+            next[prev[handle]] = next[handle];
+        }
+        if (next[handle] == NONE) {
+            tail[slot] = prev[handle];
+        } else {
+            prev[next[handle]] = prev[handle];
+        }
+        if (head[slot] == NONE) occupied[slot / SLOTS] &= ~(1L << (slot % SLOTS));
+        if (time[handle] == cachedNext) cachedNext = -1;
+        release(handle);
+        size--;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // the time of the wheel, that of the last event polled
+    public int now() {
+        return now;
+    }
+
+    // time of the earliest pending event, Long.MAX_VALUE when there is none; leaves the wheel as it is
+    public long nextTime() {
+        if (size == 0) return Long.MAX_VALUE;
+        if (occupied[0] != 0) return (now & ~(SLOTS - 1)) | Long.numberOfTrailingZeros(occupied[0]);
+        if (cachedNext < 0) {
+            int level = 1;
+            while (occupied[level] == 0) level++;
+            int slot = level * SLOTS + Long.numberOfTrailingZeros(occupied[level]);
+            int earliest = Integer.MAX_VALUE;
+            for (int entry = head[slot]; entry != NONE; entry = next[entry]) earliest = Math.min(earliest, time[entry]);
+            cachedNext = earliest;
+        }
+        return cachedNext;
+    }
+
+    // removes the earliest event and moves the wheel's time to it
+    public int poll() {
+        if (size == 0) throw new NoSuchElementException("No pending events");
+        while (occupied[0] == 0) cascade();
+        int slot = Long.numberOfTrailingZeros(occupied[0]);
+        int entry = head[slot];
+        head[slot] = next[entry];
+        if (head[slot] == NONE) {
+            tail[slot] = NONE;
+            occupied[0] &= ~(1L << slot);
+        } else {
+            prev[head[slot]] = NONE;
+        }
+        now = time[entry];
+        int event = payload[entry];
+        release(entry);
+        size--;
+        cachedNext = -1;
+        return event;
+    }
+
+    // moves the wheel's time to the start of the lowest occupied slot above level 0 and spreads that
+    // slot's events over the levels below
+    private void cascade() {
+        int level = 1;
+        while (occupied[level] == 0) level++;
+        int index = Long.numberOfTrailingZeros(occupied[level]);
+        int slot = level * SLOTS + index;
+        int shift = level * SLOT_BITS;
+        long above = shift + SLOT_BITS >= 32 ? 0 : ((long) now >>> (shift + SLOT_BITS)) << (shift + SLOT_BITS);
+        now = (int) (above | ((long) index << shift));
+
+        int entry = head[slot];
+        head[slot] = tail[slot] = NONE;
+        occupied[level] &= ~(1L << index);
+        while (entry != NONE) {
+            int following = next[entry];
+            append(entry);
+            entry = following;
+        }
+    }
+
+    private void append(int entry) {
+        int at = time[entry];
+        int level = at == now ? 0 : (31 - Integer.numberOfLeadingZeros(at ^ now)) / SLOT_BITS;
+        int index = (at >>> (level * SLOT_BITS)) & (SLOTS - 1);
+        int slot = level * SLOTS + index;
+        next[entry] = NONE;
+        prev[entry] = tail[slot];
+        if (tail[slot] == NONE) {
+            head[slot] = entry;
+        } else {
+            next[tail[slot]] = entry;
+        }
+        tail[slot] = entry;
+        slotOf[entry] = slot;
+        occupied[level] |= 1L << index;
+    }
+
+    private int allocate() {
+        if (free != NONE) {
+            int entry = free;
+            free = next[entry];
+            return entry;
+        }
+        if (used == time.length) reserve(used * 2);
+        return used++;
+    }
+
+    private void release(int entry) {
+        slotOf[entry] = NONE;
+        next[entry] = free;
+        free = entry;
+    }
+
+    // room for capacity events without growing
+    private void reserve(int capacity) {
+        if (capacity <= time.length) return;
+        time = Arrays.copyOf(time, capacity);
+        payload = Arrays.copyOf(payload, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        slotOf = Arrays.copyOf(slotOf, capacity);
+    }
+}
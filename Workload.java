@@ -0,0 +1,143 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.util.*;
+
+// Immutable scheduling input: the processes plus the scheduler parameters.
+// Backed either by a list of Process objects or, for binary workloads, by a pristine ProcessTable
+// whose columns are never written; Process objects are then only built for engines that need them.
+public final class Workload {
+    private final List<Process> processes;
+    private final ProcessTable template;
+    private final int contextSwitch;
+    private final int rrQuantum;
+    private final int agingInterval;
+    // hex SHA-256 of the process columns, computed on first use and shared with withParameters copies
+    private final String[] contentHash;
+
+    public Workload(List<Process> processes, int contextSwitch, int rrQuantum, int agingInterval) {
+        List<Process> copies = new ArrayList<>(processes.size());
+        for (Process p : processes) {
+            copies.add(p.copy());
+        }
+        this.processes = Collections.unmodifiableList(copies);
+        this.template = null;
+        this.contentHash = new String[1];
+        this.contextSwitch = contextSwitch;
+        this.rrQuantum = rrQuantum;
+        this.agingInterval = agingInterval;
+    }
+
+    // takes ownership of a ProcessTable.template, which only ever gets forked
+    Workload(ProcessTable table, int contextSwitch, int rrQuantum, int agingInterval) {
+        this.processes = null;
+        this.template = table;
+        this.contentHash = new String[1];
+        this.contextSwitch = contextSwitch;
+        this.rrQuantum = rrQuantum;
+        this.agingInterval = agingInterval;
+    }
+
+    private Workload(Workload base, int contextSwitch, int rrQuantum, int agingInterval) {
+        this.processes = base.processes;
+        this.template = base.template;
+        this.contentHash = base.contentHash;
+        this.contextSwitch = contextSwitch;
+        this.rrQuantum = rrQuantum;
+        this.agingInterval = agingInterval;
+    }
+
+    public static Workload from(Input input) {
+        return new Workload(input.getProcesses(), input.getContextSwitch(), input.getRrQuantum(), input.getAgingInterval());
+    }
+
+    // reads a JSON workload, or a binary one if the file name ends in .wkb
+    public static Workload load(String file, boolean agFormat) {
+        if (file.endsWith(BinaryWorkload.EXTENSION)) {
+            return BinaryWorkload.open(file).toWorkload();
+        }
+        Input input = new Input();
+        if (agFormat) input.ReadAGInput(file);
+        else input.ReadInput(file);
+        return from(input);
+    }
+
+    // same processes, different parameters; the process list is shared, not copied
+    public Workload withParameters(int contextSwitch, int rrQuantum, int agingInterval) {
+        return new Workload(this, contextSwitch, rrQuantum, agingInterval);
+    }
+
+    // fresh Process objects for one simulation run
+    public ArrayList<Process> newProcesses() {
+        ArrayList<Process> copies = new ArrayList<>(size());
+        if (template != null) {
+            for (int i = 0; i < template.size; i++) {
+                Process p = new Process(template.name(i), template.arrival[i], template.burst[i],
+                        template.priority[i], template.quantum[i]);
+                p.setDeadline(template.getDeadline(i));
+                p.setPeriod(template.getPeriod(i));
+                copies.add(p);
+            }
+            return copies;
+        }
+        for (Process p : processes) {
+            copies.add(p.copy());
+        }
+        return copies;
+    }
+
+    // fresh column store for one simulation run over process indices
+    public ProcessTable toTable() {
+        return template != null ? template.fork() : ProcessTable.from(processes);
+    }
+
+    // Digest of the processes in workload order: names, arrival, burst, priority and quantum, plus
+    // deadline and period when any process has them, so workloads without them keep their old hash.
+    // The scheduler parameters are not part of it, so withParameters copies share the hash.
+    public String contentHash() {
+        synchronized (contentHash) {
+            if (contentHash[0] == null) {
+                contentHash[0] = computeContentHash();
+            }
+            return contentHash[0];
+        }
+    }
+
+    private String computeContentHash() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ProcessTable table = template != null ? template : ProcessTable.from(processes);
+        boolean timed = table.hasTiming();
+        int fixed = timed ? 28 : 20;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        buffer.putInt(table.size);
+        for (int i = 0; i < table.size; i++) {
+            byte[] name = table.name(i) == null ? new byte[0] : table.name(i).getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < fixed + name.length) {
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            if (name.length > buffer.capacity() - fixed) {
+                buffer.putInt(name.length);
+                digest.update(buffer.array(), 0, buffer.position());
+                digest.update(name);
+                buffer.clear();
+            } else {
+                buffer.putInt(name.length).put(name);
+            }
+            buffer.putInt(table.arrival[i]).putInt(table.burst[i]).putInt(table.priority[i]).putInt(table.quantum[i]);
+            if (timed) buffer.putInt(table.deadline[i]).putInt(table.period[i]);
+        }
+        digest.update(buffer.array(), 0, buffer.position());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public int size() { return template != null ? template.size : processes.size(); }
+    public int getContextSwitch() { return contextSwitch; }
+    public int getRrQuantum() { return rrQuantum; }
+    public int getAgingInterval() { return agingInterval; }
+}
@@ -0,0 +1,193 @@
+import java.io.*;
+import java.util.*;
+
+// Seeded generator of synthetic workloads in the same JSON shape Input.ReadInput / Input.ReadAGInput read.
+// Processes are produced one at a time, so writeJson streams any number of them with constant memory.
+//
+// Usage: java WorkloadGenerator --count 1000000 --out big.json [--ag] [--seed 42]
+//                               [--burst uniform|exponential|pareto|lognormal] [--mean-burst 10]
+//                               [--pareto-shape 1.5] [--lognormal-sigma 1.0] [--interarrival 4]
+//                               [--max-priority 10] [--priority-skew 0] [--quantum 2-10]
+//                               [--cs 1] [--rr-quantum 4] [--aging 5]
+public class WorkloadGenerator {
+    private final Random random;
+    private String burstDistribution = "exponential";
+    private double meanBurst = 10;
+    private double paretoShape = 1.5;
+    private double lognormalSigma = 1.0;
+    private double meanInterarrival = 4;
+    private int maxPriority = 10;
+    private double[] priorityCdf;
+    private int minQuantum = 2;
+    private int maxQuantum = 10;
+
+    private double clock;
+    private int generated;
+
+    public WorkloadGenerator(long seed) {
+        this.random = new Random(seed);
+        withPriorities(10, 0);
+    }
+
+    public WorkloadGenerator withBurst(String distribution, double mean) {
+        if (!List.of("uniform", "exponential", "pareto", "lognormal").contains(distribution)) {
+            throw new IllegalArgumentException("Unknown burst distribution: " + distribution);
+        }
+        this.burstDistribution = distribution;
+        this.meanBurst = mean;
+        return this;
+    }
+
+    // shape must be above 1 for the mean to exist; smaller means a heavier tail
+    public WorkloadGenerator withParetoShape(double shape) {
+        if (shape <= 1) throw new IllegalArgumentException("Pareto shape must be > 1: " + shape);
+        this.paretoShape = shape;
+        return this;
+    }
+
+    public WorkloadGenerator withLognormalSigma(double sigma) {
+        this.lognormalSigma = sigma;
+        return this;
+    }
+
+    // Poisson arrivals: exponential gaps with this mean
+    public WorkloadGenerator withMeanInterarrival(double mean) {
+        this.meanInterarrival = mean;
+        return this;
+    }
+
+    // priority k in 1..max is drawn with weight 1 / k^skew; skew 0 is uniform,
+    // larger skew makes high-priority (low value) processes more common
+    public WorkloadGenerator withPriorities(int max, double skew) {
+        this.maxPriority = max;
+        this.priorityCdf = new double[max];
+        double total = 0;
+        for (int k = 1; k <= max; k++) {
+            total += 1 / Math.pow(k, skew);
+            priorityCdf[k - 1] = total;
+        }
+        for (int k = 0; k < max; k++) {
+            priorityCdf[k] /= total;
+        }
+        return this;
+    }
+
+    // per-process AG quantum, uniform in [min, max]
+    public WorkloadGenerator withQuantumRange(int min, int max) {
+        this.minQuantum = min;
+        this.maxQuantum = max;
+        return this;
+    }
+
+    public Process next() {
+        generated++;
+        int arrival = (int) clock;
+        clock += -meanInterarrival * Math.log(1 - random.nextDouble());
+        int quantum = minQuantum + random.nextInt(maxQuantum - minQuantum + 1);
+        return new Process("P" + generated, arrival, nextBurst(), nextPriority(), quantum);
+    }
+
+    private int nextBurst() {
+        double u = random.nextDouble();
+        double burst = switch (burstDistribution) {
+            case "uniform" -> 1 + u * (2 * meanBurst - 2);
+            case "exponential" -> -meanBurst * Math.log(1 - u);
+            case "pareto" -> meanBurst * (paretoShape - 1) / paretoShape / Math.pow(1 - u, 1 / paretoShape);
+            default -> Math.exp(Math.log(meanBurst) - lognormalSigma * lognormalSigma / 2 + lognormalSigma * random.nextGaussian());
+        };
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE / 4, Math.round(burst)));
+    }
+
+    private int nextPriority() {
+        int index = Arrays.binarySearch(priorityCdf, random.nextDouble());
+        return Math.min(maxPriority, (index < 0 ? -index - 1 : index) + 1);
+    }
+
+    public Workload toWorkload(int count, int contextSwitch, int rrQuantum, int agingInterval) {
+        List<Process> processes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            processes.add(next());
+        }
+        return new Workload(processes, contextSwitch, rrQuantum, agingInterval);
+    }
+
+    // agFormat writes per-process quanta and no scheduler parameters, like AG_test*.json
+    public void writeJson(Writer out, int count, boolean agFormat, int contextSwitch, int rrQuantum, int agingInterval) throws IOException {
+        out.write("{\n");
+        if (!agFormat) {
+            out.write("  \"name\": \"Generated workload: " + count + " processes\",\n");
+        }
+        out.write("  \"input\": {\n");
+        if (!agFormat) {
+            out.write("    \"contextSwitch\": " + contextSwitch + ",\n");
+            out.write("    \"rrQuantum\": " + rrQuantum + ",\n");
+            out.write("    \"agingInterval\": " + agingInterval + ",\n");
+        }
+        out.write("    \"processes\": [\n");
+        for (int i = 0; i < count; i++) {
+            Process p = next();
+            out.write("      {\"name\": \"" + p.getName() + "\", \"arrival\": " + p.getArrivalTime()
+                    + ", \"burst\": " + p.getBurstTime() + ", \"priority\": " + p.getPriority());
+            if (agFormat) {
+                out.write(", \"quantum\": " + p.getQuantumTime());
+            }
+            out.write(i + 1 < count ? "},\n" : "}\n");
+        }
+        out.write("    ]\n");
+        out.write("  }\n");
+        out.write("}\n");
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = 1000;
+        String outFile = null;
+        boolean agFormat = false;
+        long seed = 42;
+        String burst = "exponential";
+        double meanBurst = 10, paretoShape = 1.5, lognormalSigma = 1.0, interarrival = 4, prioritySkew = 0;
+        int maxPriority = 10, minQuantum = 2, maxQuantum = 10, contextSwitch = 1, rrQuantum = 4, aging = 5;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--count" -> count = Integer.parseInt(args[++i]);
+                case "--out" -> outFile = args[++i];
+                case "--ag" -> agFormat = true;
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--burst" -> burst = args[++i];
+                case "--mean-burst" -> meanBurst = Double.parseDouble(args[++i]);
+                case "--pareto-shape" -> paretoShape = Double.parseDouble(args[++i]);
+                case "--lognormal-sigma" -> lognormalSigma = Double.parseDouble(args[++i]);
+                case "--interarrival" -> interarrival = Double.parseDouble(args[++i]);
+                case "--max-priority" -> maxPriority = Integer.parseInt(args[++i]);
+                case "--priority-skew" -> prioritySkew = Double.parseDouble(args[++i]);
+                case "--quantum" -> {
+                    String[] range = args[++i].split("-");
+                    minQuantum = Integer.parseInt(range[0]);
+                    maxQuantum = Integer.parseInt(range[range.length - 1]);
+                }
+                case "--cs" -> contextSwitch = Integer.parseInt(args[++i]);
+                case "--rr-quantum" -> rrQuantum = Integer.parseInt(args[++i]);
+                case "--aging" -> aging = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        WorkloadGenerator generator = new WorkloadGenerator(seed)
+                .withBurst(burst, meanBurst)
+                .withParetoShape(paretoShape)
+                .withLognormalSigma(lognormalSigma)
+                .withMeanInterarrival(interarrival)
+                .withPriorities(maxPriority, prioritySkew)
+                .withQuantumRange(minQuantum, maxQuantum);
+
+        Writer out = outFile == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16)
+                : new BufferedWriter(new FileWriter(outFile), 1 << 16);
+        try {
+            generator.writeJson(out, count, agFormat, contextSwitch, rrQuantum, aging);
+        } finally {
+            out.flush();
+            if (outFile != null) out.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+import java.util.*;
+
+class outputprocess {
+    private String name;
+    private int waitingTime;
+    private int turnaroundTime;
+    private List<Integer> quantumHistory;
+
+    public outputprocess(String name, int waitingTime, int turnaroundTime, List<Integer> quantumHistory) {
+        this.name = name;
+        this.waitingTime = waitingTime;
+        this.turnaroundTime = turnaroundTime;
+        this.quantumHistory = quantumHistory;
+    }
+
+    public outputprocess(String name, int waitingTime, int turnaroundTime) {
+        this(name, waitingTime, turnaroundTime, new ArrayList<>());
+    }
+
+    public String getName() { return name; }
+    public int getWaitingTime() { return waitingTime; }
+    public int getTurnaroundTime() { return turnaroundTime; }
+    public List<Integer> get_Quantum_History() { return quantumHistory; }
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Throughput of the registered schedulers on seeded synthetic workloads, one full simulation per
+// operation. Every parameter is a JMH @Param, so a run can pin or sweep any of them:
+//
+//   gradle jmh -Pjmh='SchedulerBenchmark -p engine=RR,MLFQ -p size=1000,1000000 -p burst=pareto -prof gc'
+//
+// Comparing the size rows of one engine gives its scaling curve; -prof gc adds the allocation rate
+// and bytes allocated per simulation.
+//
+// JMH does not accept benchmarks in the unnamed package, and code in a named package cannot name
+// the simulator's classes, so the fixture reaches them through reflection once per trial and the
+// measured call is a method handle bound to the scheduler.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    @Param({"SJF", "RR", "Priority", "AG"})
+    public String engine;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    // uniform, exponential, pareto or lognormal, with a mean burst of 10
+    @Param({"uniform", "pareto"})
+    public String burst;
+
+    // mean gap between Poisson arrivals; smaller means denser arrivals and longer ready queues
+    @Param({"4"})
+    public double arrivalGap;
+
+    @Param({"4"})
+    public int quantum;
+
+    @Param({"1"})
+    public int contextSwitch;
+
+    @Param({"5"})
+    public int agingInterval;
+
+    @Param({"42"})
+    public long seed;
+
+    private Object workload;
+    // Scheduler.run bound to the engine, typed (Object)Object
+    private MethodHandle run;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        Class<?> generatorClass = Class.forName("WorkloadGenerator");
+        Class<?> workloadClass = Class.forName("Workload");
+        Class<?> schedulerClass = Class.forName("Scheduler");
+
+        Object generator = generatorClass.getConstructor(long.class).newInstance(seed ^ size);
+        generatorClass.getMethod("withBurst", String.class, double.class).invoke(generator, burst, 10.0);
+        generatorClass.getMethod("withMeanInterarrival", double.class).invoke(generator, arrivalGap);
+        workload = generatorClass.getMethod("toWorkload", int.class, int.class, int.class, int.class)
+                .invoke(generator, size, contextSwitch, quantum, agingInterval);
+
+        Object scheduler = Class.forName("SchedulerRegistry").getMethod("get", String.class).invoke(null, engine);
+        run = MethodHandles.publicLookup()
+                .findVirtual(schedulerClass, "run", MethodType.methodType(Class.forName("ScheduleResult"), workloadClass))
+                .bindTo(scheduler)
+                .asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    // the ScheduleResult, returned so JMH consumes it
+    @Benchmark
+    public Object schedule() throws Throwable {
+        return (Object) run.invokeExact(workload);
+    }
+}